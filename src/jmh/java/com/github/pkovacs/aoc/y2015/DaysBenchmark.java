@@ -0,0 +1,59 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import com.github.pkovacs.util.InputCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the solutions registered in {@link AllDays}. The parsing of the input file and the solving of
+ * the puzzle are measured separately for each day. The input files are located in the {@code input} directory
+ * relative to the working directory, just like for {@link AllDays}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DaysBenchmark {
+
+    @Param({ "01", "02", "03", "04", "05", "06", "07" })
+    public String day;
+
+    private Solver<Object> solver;
+    private Path inputPath;
+    private Object input;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        solver = (Solver<Object>) AllDays.findDay(Integer.parseInt(day)).orElseThrow().solver();
+        inputPath = AocUtils.getInputPath(solver.getClass());
+        // Measure the parsing with the file I/O, not the InputCache
+        InputCache.setEnabled(false);
+        input = solver.parse(inputPath);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return solver.parse(inputPath);
+    }
+
+    @Benchmark
+    public Object solve() {
+        return solver.solve(input);
+    }
+
+}
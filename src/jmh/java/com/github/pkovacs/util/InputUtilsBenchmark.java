@@ -0,0 +1,57 @@
+package com.github.pkovacs.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the parsing methods of {@link InputUtils}, using typical puzzle input lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InputUtilsBenchmark {
+
+    private final String scanLine = "turn off 199,133 through 461,193";
+    private final String shortLine = "29x13x26";
+    private final ScanTemplate.Result scanResult = ScanTemplate.compile("%s %d,%d through %d,%d").newResult();
+    private final String longLine = "Sensor at x=-2, y=18: closest beacon is at x=-2, y=15; 1024 apples, -7 bananas";
+
+    @Benchmark
+    public Object scan() {
+        return InputUtils.scan(scanLine, "%s %d,%d through %d,%d");
+    }
+
+    @Benchmark
+    public int scanTemplate() {
+        var match = scanResult.match(scanLine);
+        return match.getInt(1) + match.getInt(2) + match.getInt(3) + match.getInt(4) + match.getChar(0);
+    }
+
+    @Benchmark
+    public int[] parseIntsShort() {
+        return InputUtils.parseInts(shortLine);
+    }
+
+    @Benchmark
+    public int[] parseIntsLong() {
+        return InputUtils.parseInts(longLine);
+    }
+
+    @Benchmark
+    public long[] parseLongs() {
+        return InputUtils.parseLongs(longLine);
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.github.pkovacs.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks comparing {@link Md5NonceHasher} and {@link Md5NonceVectorHasher}. The throughput is reported
+ * in hashes per microsecond. The setup verifies that both hashers find the same first nonce.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Md5NonceHasherBenchmark {
+
+    private static final String PREFIX = "abcdef";
+    private static final int BATCH = 1 << 12;
+
+    private final int mask = Md5NonceHasher.leadingZeroMask(5);
+
+    private Md5NonceHasher scalar;
+    private Md5NonceVectorHasher vector;
+
+    @Setup
+    public void setup() {
+        if (!Md5NonceHasher.isVectorHasherSupported(PREFIX)) {
+            throw new IllegalStateException("The Vector API is not available: "
+                    + "add '--add-modules jdk.incubator.vector'.");
+        }
+
+        scalar = new Md5NonceHasher(PREFIX, 1);
+        while ((scalar.firstWord() & mask) != 0) {
+            scalar.next();
+        }
+        vector = new Md5NonceVectorHasher(PREFIX, 1);
+        int lane;
+        while ((lane = vector.findLane(mask)) < 0) {
+            vector.next();
+        }
+        if (scalar.nonce() != vector.nonce() + lane) {
+            throw new IllegalStateException("Scalar and vector hashers found different nonces: " + scalar.nonce()
+                    + " and " + (vector.nonce() + lane) + ".");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int scalar() {
+        int result = 0;
+        for (int i = 0; i < BATCH; i++) {
+            scalar.next();
+            result |= scalar.firstWord() & mask;
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int vector() {
+        int result = 0;
+        for (int i = 0; i < BATCH; i += vector.laneCount()) {
+            vector.next();
+            result += vector.findLane(mask);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.github.pkovacs.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for parsing the numbers of a large Day 2-like input (lines like {@code "29x13x26"}) by the
+ * number scanner of {@link InputUtils} and by {@link ColumnarInput} compared to the RegEx-based approach the
+ * scanner replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseNumbersBenchmark {
+
+    private static final Pattern decimalPattern = Pattern.compile("-?\\d+");
+
+    @Param({ "2000000" })
+    public int lineCount;
+
+    private final ScanTemplate template = ScanTemplate.compile("%dx%dx%d");
+
+    private String text;
+    private String[] lines;
+
+    @Setup
+    public void setup() {
+        var random = new Random(2015);
+        var sb = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            sb.append(1 + random.nextInt(30)).append('x')
+                    .append(1 + random.nextInt(30)).append('x')
+                    .append(1 + random.nextInt(30)).append('\n');
+        }
+        text = sb.toString();
+        lines = text.lines().toArray(String[]::new);
+    }
+
+    @Benchmark
+    public long regexPerLine() {
+        long sum = 0;
+        for (var line : lines) {
+            int[] values = decimalPattern.matcher(line)
+                    .results()
+                    .map(MatchResult::group)
+                    .mapToInt(Integer::parseInt)
+                    .toArray();
+            sum += values[0] + values[1] + values[2];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long parseIntsPerLine() {
+        long sum = 0;
+        for (var line : lines) {
+            int[] values = InputUtils.parseInts(line);
+            sum += values[0] + values[1] + values[2];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long parseIntsPerLineWithBuffer() {
+        long sum = 0;
+        int[] values = new int[3];
+        for (var line : lines) {
+            InputUtils.parseInts(line, values);
+            sum += values[0] + values[1] + values[2];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int[] parseIntsWholeText() {
+        return InputUtils.parseInts(text);
+    }
+
+    @Benchmark
+    public ColumnarInput columnarWholeText() {
+        return ColumnarInput.parse(text, template, false);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.github.pkovacs.util.alg;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.pkovacs.util.data.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for {@link Bfs} and {@link Backtracking}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SearchBenchmark {
+
+    @Param({ "100", "300" })
+    public int gridSize;
+
+    @Param({ "8" })
+    public int queens;
+
+    @Benchmark
+    public Object bfsGrid() {
+        return bfsGrid(null);
+    }
+
+    @Benchmark
+    public Object bfsGridWithStats() {
+        return bfsGrid(new BfsStats());
+    }
+
+    @Benchmark
+    public Object backtrackingQueens() {
+        return backtrackingQueens(null);
+    }
+
+    @Benchmark
+    public Object backtrackingQueensWithStats() {
+        return backtrackingQueens(new BacktrackingStats());
+    }
+
+    @Benchmark
+    public Object backtrackingPermutations() {
+        return Backtracking.findAll(queens, Backtracking::distinct);
+    }
+
+    private Object bfsGrid(BfsStats stats) {
+        int n = gridSize;
+        return Bfs.run(List.of(new Tile(0, 0)),
+                t -> t.validNeighbors(n, n, u -> (u.row() * 7 + u.col() * 13) % 11 != 0),
+                t -> false, stats);
+    }
+
+    private Object backtrackingQueens(BacktrackingStats stats) {
+        return Backtracking.findAll(queens, queens, (a, k) -> {
+            for (int i = 0; i < k; i++) {
+                if (a[i] == a[k] || Math.abs(a[i] - a[k]) == k - i) {
+                    return false;
+                }
+            }
+            return true;
+        }, stats);
+    }
+
+}
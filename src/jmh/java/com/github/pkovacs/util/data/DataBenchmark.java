@@ -0,0 +1,59 @@
+package com.github.pkovacs.util.data;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for {@link CounterMap} and {@link Tile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DataBenchmark {
+
+    private String[] keys;
+    private Tile[] tiles;
+
+    @Setup
+    public void setup() {
+        keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + (i % 1000);
+        }
+        tiles = new Tile[10_000];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = new Tile(i / 100, i % 100);
+        }
+    }
+
+    @Benchmark
+    public Object counterMapAdd() {
+        var map = new CounterMap<String>();
+        for (int i = 0; i < keys.length; i++) {
+            map.add(keys[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void tileNeighbors(Blackhole bh) {
+        for (var tile : tiles) {
+            bh.consume(tile.neighbors());
+        }
+    }
+
+}
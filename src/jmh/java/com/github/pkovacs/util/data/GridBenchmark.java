@@ -0,0 +1,141 @@
+package com.github.pkovacs.util.data;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for {@link QuadTreeGrid} and {@link BitGrid} compared to plain arrays. The workload consists of
+ * random Day 6-like rectangle updates (on/off/toggle and +1/-1 clamped/+2), each followed by a rectangle sum query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GridBenchmark {
+
+    @Param({ "1000" })
+    public int size;
+
+    @Param({ "300" })
+    public int operations;
+
+    /** The operations: type, row1, col1, row2, col2 and the rectangle of the query after it. */
+    private int[][] ops;
+
+    @Setup
+    public void setup() {
+        var random = new Random(2015);
+        ops = new int[operations][];
+        for (int i = 0; i < operations; i++) {
+            int r1 = random.nextInt(size);
+            int c1 = random.nextInt(size);
+            int r2 = r1 + random.nextInt(size - r1);
+            int c2 = c1 + random.nextInt(size - c1);
+            int qr1 = random.nextInt(size);
+            int qc1 = random.nextInt(size);
+            int qr2 = qr1 + random.nextInt(size - qr1);
+            int qc2 = qc1 + random.nextInt(size - qc1);
+            ops[i] = new int[] { random.nextInt(3), r1, c1, r2, c2, qr1, qc1, qr2, qc2 };
+        }
+    }
+
+    @Benchmark
+    public long plainGridBrightness() {
+        long[][] grid = new long[size][size];
+        long total = 0;
+        for (int[] op : ops) {
+            for (int i = op[1]; i <= op[3]; i++) {
+                for (int j = op[2]; j <= op[4]; j++) {
+                    grid[i][j] = switch (op[0]) {
+                        case 0 -> grid[i][j] + 1;
+                        case 1 -> Math.max(grid[i][j] - 1, 0);
+                        default -> grid[i][j] + 2;
+                    };
+                }
+            }
+            for (int i = op[5]; i <= op[7]; i++) {
+                for (int j = op[6]; j <= op[8]; j++) {
+                    total += grid[i][j];
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long quadTreeBrightness() {
+        var grid = new QuadTreeGrid(size, size);
+        long total = 0;
+        for (int[] op : ops) {
+            switch (op[0]) {
+                case 0 -> grid.add(op[1], op[2], op[3], op[4], 1);
+                case 1 -> grid.addClamped(op[1], op[2], op[3], op[4], -1, 0);
+                default -> grid.add(op[1], op[2], op[3], op[4], 2);
+            }
+            total += grid.sum(op[5], op[6], op[7], op[8]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long plainGridLights() {
+        boolean[][] grid = new boolean[size][size];
+        long total = 0;
+        for (int[] op : ops) {
+            for (int i = op[1]; i <= op[3]; i++) {
+                for (int j = op[2]; j <= op[4]; j++) {
+                    grid[i][j] = op[0] == 2 ? !grid[i][j] : op[0] == 0;
+                }
+            }
+            for (int i = op[5]; i <= op[7]; i++) {
+                for (int j = op[6]; j <= op[8]; j++) {
+                    total += grid[i][j] ? 1 : 0;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long quadTreeLights() {
+        var grid = new QuadTreeGrid(size, size);
+        long total = 0;
+        for (int[] op : ops) {
+            switch (op[0]) {
+                case 0 -> grid.assign(op[1], op[2], op[3], op[4], 1);
+                case 1 -> grid.assign(op[1], op[2], op[3], op[4], 0);
+                default -> grid.toggle(op[1], op[2], op[3], op[4]);
+            }
+            total += grid.sum(op[5], op[6], op[7], op[8]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long bitGridLightsWithoutQueries() {
+        var grid = new BitGrid(size, size);
+        for (int[] op : ops) {
+            switch (op[0]) {
+                case 0 -> grid.set(op[1], op[2], op[3], op[4]);
+                case 1 -> grid.clear(op[1], op[2], op[3], op[4]);
+                default -> grid.toggle(op[1], op[2], op[3], op[4]);
+            }
+        }
+        return grid.count();
+    }
+
+}
@@ -1,77 +1,326 @@
 package com.github.pkovacs.aoc.y2015;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.pkovacs.aoc.y2015.Solver.Answers;
+import com.github.pkovacs.util.InputCache;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
 /**
  * Verifies the solution for each day against the expected answers for my puzzle input files.
+ * <p>
+ * By default, the days are executed one after another, once each. The following command line options are supported:
+ * <ul>
+ * <li>{@code --parallel}: executes the days concurrently, using as many threads as available processors</li>
+ * <li>{@code --threads N}: executes the days concurrently, using {@code N} threads</li>
+ * <li>{@code --repeat N}: executes each day {@code N} more times after the first (cold) run in the same JVM, and
+ *     reports the cold time as well as the minimum, median, 90th percentile, and maximum of the warm iterations
+ *     in microseconds. Days whose warm times vary too much are flagged.</li>
+ * <li>{@code --warmup M}: executes each day {@code M} times between the cold run and the measured iterations
+ *     without measuring them (requires {@code --repeat})</li>
+ * <li>{@code --report FILE}: writes the detailed results into the given CSV or JSON file (based on its extension)
+ *     as well</li>
+ * <li>{@code --profile FILE}: records a Java Flight Recorder file with execution sampling and allocation
+ *     profiling enabled, including the custom events of the phases of the days ({@link DayPhaseEvent}) and the
+ *     search algorithms. The file can be opened in JDK Mission Control.</li>
+ * <li>{@code --save-baseline FILE}: saves the time and allocation of each day into the given file as a
+ *     {@link PerformanceBaseline performance baseline}</li>
+ * <li>{@code --check-baseline FILE}: checks the time and allocation of each day against the budgets in the given
+ *     baseline file. If any day is incorrect or exceeds its budget by more than the margin, the deltas are printed,
+ *     and the process exits with a non-zero status.</li>
+ * <li>{@code --margin P}: the allowed margin over the baseline in percent (default: 25)</li>
+ * <li>{@code --cache}: takes the answers from the persistent {@link AnswerCache} if the input file and the solver
+ *     are unchanged since the last run, and stores the new answers in it otherwise. This option cannot be combined
+ *     with the measurement options (the repeat mode and baselines).</li>
+ * <li>{@code --no-cache}: bypasses the cache (overrides a preceding {@code --cache})</li>
+ * </ul>
+ * The table is printed in the order of the days in all cases. The time of each day is measured on the thread
+ * executing it: both the elapsed (wall-clock) time and the CPU time of that thread are reported. The CPU time does
+ * not include the work done by other threads on behalf of the day (e.g. in the common fork-join pool).
+ * <p>
+ * The time of parsing the input file and solving the puzzle are also reported separately, together with the
+ * number of bytes allocated by the executing thread and the number and total time of garbage collections. In the
+ * repeat mode, these are the medians of the measured iterations, except for the GC statistics, which are summed
+ * over all executions of the day. (The GC statistics are JVM-wide, so they are only meaningful for sequential
+ * execution.) Unless the days are measured (the repeat mode and baselines), the input files are loaded into the
+ * {@link InputCache} asynchronously when the harness starts, so the parse time mostly excludes the file I/O.
  */
 public class AllDays {
 
-    private static final List<Day> DAYS = List.of(
-            new Day("Day 01", Day01::main, "280", "1797"),
-            new Day("Day 02", Day02::main, "1606483", "3842356"),
-            new Day("Day 03", Day03::main, "2592", "2360"),
-            new Day("Day 04", Day04::main, "254575", "1038736"),
-            new Day("Day 05", Day05::main, "258", "53"),
-            new Day("Day 06", Day06::main, "377891", "14110788"),
-            new Day("Day 07", Day07::main, "956", "40149"),
-//            new Day("Day 08", Day08::main, "0", "0"),
-//            new Day("Day 09", Day09::main, "0", "0"),
-//            new Day("Day 10", Day10::main, "0", "0"),
-//            new Day("Day 11", Day11::main, "0", "0"),
-//            new Day("Day 12", Day12::main, "0", "0"),
-//            new Day("Day 13", Day13::main, "0", "0"),
-//            new Day("Day 14", Day14::main, "0", "0"),
-//            new Day("Day 15", Day15::main, "0", "0"),
-//            new Day("Day 16", Day16::main, "0", "0"),
-//            new Day("Day 17", Day17::main, "0", "0"),
-//            new Day("Day 18", Day18::main, "0", "0"),
-//            new Day("Day 19", Day19::main, "0", "0"),
-//            new Day("Day 20", Day20::main, "0", "0"),
-//            new Day("Day 21", Day21::main, "0", "0"),
-//            new Day("Day 22", Day22::main, "0", "0"),
-//            new Day("Day 23", Day23::main, "0", "0"),
-//            new Day("Day 24", Day24::main, "0", "0"),
-//            new Day("Day 25", Day25::main, "0", "0")
+    static final List<Day> DAYS = List.of(
+            new Day("Day 01", new Day01(), "280", "1797"),
+            new Day("Day 02", new Day02(), "1606483", "3842356"),
+            new Day("Day 03", new Day03(), "2592", "2360"),
+            new Day("Day 04", new Day04(), "254575", "1038736"),
+            new Day("Day 05", new Day05(), "258", "53"),
+            new Day("Day 06", new Day06(), "377891", "14110788"),
+            new Day("Day 07", new Day07(), "956", "40149"),
+//            new Day("Day 08", new Day08(), "0", "0"),
+//            new Day("Day 09", new Day09(), "0", "0"),
+//            new Day("Day 10", new Day10(), "0", "0"),
+//            new Day("Day 11", new Day11(), "0", "0"),
+//            new Day("Day 12", new Day12(), "0", "0"),
+//            new Day("Day 13", new Day13(), "0", "0"),
+//            new Day("Day 14", new Day14(), "0", "0"),
+//            new Day("Day 15", new Day15(), "0", "0"),
+//            new Day("Day 16", new Day16(), "0", "0"),
+//            new Day("Day 17", new Day17(), "0", "0"),
+//            new Day("Day 18", new Day18(), "0", "0"),
+//            new Day("Day 19", new Day19(), "0", "0"),
+//            new Day("Day 20", new Day20(), "0", "0"),
+//            new Day("Day 21", new Day21(), "0", "0"),
+//            new Day("Day 22", new Day22(), "0", "0"),
+//            new Day("Day 23", new Day23(), "0", "0"),
+//            new Day("Day 24", new Day24(), "0", "0"),
+//            new Day("Day 25", new Day25(), "0", "0")
             new Day("The End", null, null, null)
     );
 
-    public static void main(String[] args) {
-        String format = "%-12s%-8s%-8s%8s%n";
-        System.out.printf(format, "Day", "Part 1", "Part 2", "Time");
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    /** The name of the JFR event emitted by the search algorithms of the util package. */
+    private static final String SEARCH_EVENT_NAME = "com.github.pkovacs.util.alg.Search";
+
+    public static void main(String[] args) throws InterruptedException {
+        var options = HarnessOptions.parse(args);
+        var baseline = options.checkBaselineFile() != null
+                ? PerformanceBaseline.read(options.checkBaselineFile())
+                : null;
+        boolean repeat = options.repeat() > 0;
+
+        var cache = options.cache() ? new AnswerCache(AnswerCache.DEFAULT_DIR) : null;
+
+        String format = repeat
+                ? "%-12s%-8s%-8s%10s%10s%10s%10s%10s%10s%10s%11s%13s %s%n"
+                : "%-12s%-8s%-8s%10s%10s%10s%10s%11s%13s" + (cache != null ? "%8s" : "%s") + "%n";
+        if (repeat) {
+            System.out.printf(format, "Day", "Part 1", "Part 2", "Cold", "Min", "Median", "P90", "Max",
+                    "Parse", "Solve", "Alloc", "GC", "");
+        } else {
+            System.out.printf(format, "Day", "Part 1", "Part 2", "Time", "Parse", "Solve", "CPU", "Alloc", "GC",
+                    cache != null ? "Cache" : "");
+        }
+
+        if (!options.measuring()) {
+            // Start loading the input files in the background, so the days do not have to wait for the I/O
+            InputCache.setEnabled(true);
+            InputCache.prefetch(DAYS.stream()
+                    .filter(day -> day.solver != null)
+                    .map(day -> AocUtils.getInputPath(day.solver.getClass()))
+                    .toList());
+        }
+
+        var recording = options.profileFile() != null ? startRecording(options.profileFile()) : null;
+
+        long start = System.nanoTime();
+        var results = new ArrayList<DayResult>();
+        boolean unsettled = false;
+        try (var executor = Executors.newFixedThreadPool(options.threads())) {
+            var futures = new ArrayList<Future<DayResult>>();
+            DAYS.stream().filter(day -> day.solver != null)
+                    .forEach(day -> futures.add(executor.submit(() -> runDay(day, options, cache))));
+
+            for (var future : futures) {
+                var result = getResult(future);
+                results.add(result);
+                var gc = result.sum(Execution::gcCount) + " / " + result.sum(Execution::gcMillis) + " ms";
+                if (repeat) {
+                    var stats = result.warmStats();
+                    unsettled |= stats.isUnsettled();
+                    System.out.printf(format, result.day().name, evaluate(result, 1), evaluate(result, 2),
+                            toMicros(result.cold().totalNanos()), toMicros(stats.min()), toMicros(stats.median()),
+                            toMicros(stats.p90()), toMicros(stats.max()),
+                            toMicros(result.median(Execution::parseNanos)),
+                            toMicros(result.median(Execution::solveNanos)),
+                            formatBytes(result.median(Execution::allocatedBytes)), gc,
+                            stats.isUnsettled() ? "~" : "");
+                } else {
+                    var cold = result.cold();
+                    System.out.printf(format, result.day().name, evaluate(result, 1), evaluate(result, 2),
+                            formatMillis(cold.totalNanos()), formatMillis(cold.parseNanos()),
+                            formatMillis(cold.solveNanos()), formatMillis(result.cpuNanos()),
+                            formatBytes(cold.allocatedBytes()), gc,
+                            cache != null ? result.cacheStatus().name().toLowerCase(Locale.ROOT) : "");
+                }
+            }
+        }
+        long wallTime = System.nanoTime() - start;
+
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+        }
+
+        if (repeat) {
+            System.out.printf("%nTimes are in microseconds (%d warm-up and %d measured iterations).%n",
+                    options.warmup(), options.repeat());
+            if (unsettled) {
+                System.out.printf("~ marks days whose warm times have not settled (coefficient of variation "
+                        + "above %.0f%%).%n", TimingStats.UNSETTLED_THRESHOLD * 100);
+            }
+        }
+        long cpuSum = results.stream().mapToLong(DayResult::cpuNanos).sum();
+        System.out.printf("%nTotal: %d ms wall time, %d ms CPU time (%d thread%s)%n", toMillis(wallTime),
+                toMillis(cpuSum), options.threads(), options.threads() > 1 ? "s" : "");
 
-        DAYS.stream().filter(day -> day.mainMethod != null).forEach(day -> {
-            long start = System.nanoTime();
-            var results = runDay(day);
-            long time = (System.nanoTime() - start) / 1_000_000L;
+        if (options.reportFile() != null) {
+            HarnessReport.write(options.reportFile(), results);
+            System.out.println("Report written to " + options.reportFile());
+        }
+        if (recording != null) {
+            System.out.println("JFR recording written to " + options.profileFile());
+        }
+        if (options.saveBaselineFile() != null) {
+            PerformanceBaseline.of(results, options).write(options.saveBaselineFile());
+            System.out.println("Baseline written to " + options.saveBaselineFile());
+        }
+        if (baseline != null && !checkBaseline(baseline, results, options)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks the results against the given baseline, and prints the regressions (if any).
+     *
+     * @return true if all days are correct and within their budgets
+     */
+    private static boolean checkBaseline(PerformanceBaseline baseline, List<DayResult> results,
+            HarnessOptions options) {
+        var failures = new ArrayList<String>();
+        for (var result : results) {
+            if (!result.isCorrect(1) || !result.isCorrect(2)) {
+                failures.add(result.day().name + ": incorrect answer");
+            }
+        }
+        failures.addAll(baseline.check(results, options.margin() / 100.0));
+
+        System.out.printf("%nBaseline check against %s (margin %d%%): %s%n", options.checkBaselineFile(),
+                options.margin(), failures.isEmpty() ? "OK" : "FAILED");
+        var current = PerformanceBaseline.describe(options);
+        if (!current.equals(baseline.options())) {
+            System.out.printf("Warning: the baseline was measured with different options (%s).%n",
+                    baseline.options());
+        }
+        failures.forEach(failure -> System.out.println("  " + failure));
+        return failures.isEmpty();
+    }
 
-            System.out.printf(format, day.name, evaluate(day, results, 0), evaluate(day, results, 1), time + " ms");
-        });
+    /**
+     * Returns the registered day with the given number (e.g. the day of {@link Day04} for 4), or an empty optional
+     * if there is no solver for that day.
+     */
+    static Optional<Day> findDay(int number) {
+        var className = String.format("Day%02d", number);
+        return DAYS.stream()
+                .filter(day -> day.solver != null && day.solver.getClass().getSimpleName().equals(className))
+                .findFirst();
     }
 
-    private static String evaluate(Day day, List<String> results, int index) {
-        var expected = index == 0 ? day.expected1 : day.expected2;
-        return results.size() == 2 && expected.equals(results.get(index)) ? "\u2714" : "FAILED";
+    private static Recording startRecording(Path file) {
+        try {
+            var recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(10));
+            recording.enable("jdk.ObjectAllocationSample").with("throttle", "1000/s");
+            recording.enable(DayPhaseEvent.class);
+            recording.enable(SEARCH_EVENT_NAME);
+            recording.setDestination(file);
+            recording.start();
+            return recording;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to start JFR recording.", e);
+        }
     }
 
-    private static List<String> runDay(Day day) {
-        var origOut = System.out;
+    private static DayResult getResult(Future<DayResult> future) throws InterruptedException {
         try {
-            var out = new ByteArrayOutputStream(200);
-            System.setOut(new PrintStream(out));
-            day.mainMethod.accept(null);
-            return out.toString(StandardCharsets.UTF_8).lines().map(l -> l.split(": ")[1]).toList();
-        } catch (Exception e) {
-            return List.of();
-        } finally {
-            System.setOut(origOut);
+            return future.get();
+        } catch (ExecutionException e) {
+            // runDay() handles the exceptions of the solvers
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String evaluate(DayResult result, int part) {
+        return result.isCorrect(part) ? "\u2714" : "FAILED";
+    }
+
+    /**
+     * Executes the given day: a cold run, then the warm-up and measured iterations (if any). The answers of the
+     * warm iterations have to be the same as those of the cold run, otherwise the day is considered failed.
+     * If a cache is given, the answers are taken from it when possible instead of executing the day.
+     */
+    private static DayResult runDay(Day day, HarnessOptions options, AnswerCache cache) {
+        long cpuStart = threadBean.getCurrentThreadCpuTime();
+        var inputPath = AocUtils.getInputPath(day.solver.getClass());
+
+        if (cache != null) {
+            var cached = cache.get(day.solver, inputPath);
+            if (cached != null) {
+                return new DayResult(day, cached, new Execution(cached, 0, 0, 0, 0, 0), List.of(),
+                        threadBean.getCurrentThreadCpuTime() - cpuStart, AnswerCache.Status.HIT);
+            }
+        }
+
+        var cold = Execution.measure(day.solver, inputPath);
+        var answers = cold.answers();
+
+        for (int i = 0; i < options.warmup() && answers != null; i++) {
+            answers = checkSame(answers, Execution.measure(day.solver, inputPath).answers());
+        }
+
+        var warm = new ArrayList<Execution>();
+        for (int i = 0; i < options.repeat(); i++) {
+            var execution = Execution.measure(day.solver, inputPath);
+            answers = checkSame(answers, execution.answers());
+            warm.add(execution);
+        }
+
+        if (cache != null && answers != null) {
+            cache.put(day.solver, inputPath, answers);
+        }
+        return new DayResult(day, answers, cold, warm, threadBean.getCurrentThreadCpuTime() - cpuStart,
+                cache != null ? AnswerCache.Status.MISS : AnswerCache.Status.OFF);
+    }
+
+    private static Answers checkSame(Answers answers, Answers other) {
+        return answers != null && answers.equals(other) ? answers : null;
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+
+    private static long toMicros(long nanos) {
+        return nanos / 1_000L;
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f ms", nanos / 1e6);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 0) {
+            return "n/a";
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        } else {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
         }
     }
 
-    private record Day(String name, Consumer<String[]> mainMethod, String expected1, String expected2) {}
+    record Day(String name, Solver<?> solver, String expected1, String expected2) {}
 
 }
@@ -0,0 +1,126 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.github.pkovacs.aoc.y2015.Solver.Answers;
+
+/**
+ * A persistent cache of the answers of the days for {@link AllDays}. Each entry is stored in a separate file in the
+ * cache directory, and its key is a SHA-256 hash of the contents of the input file and the bytecode of the solver
+ * class (including its nested classes). So an unchanged day is answered from the cache, but any change of the input
+ * or the solver invalidates the entry automatically. (Changes of the utility classes used by the solver are not
+ * detected, the cache directory has to be deleted in this case.)
+ * <p>
+ * This class is thread-safe as long as each solver is executed by a single thread at a time.
+ */
+final class AnswerCache {
+
+    /** The default cache directory, which is removed by {@code ./gradlew clean}. */
+    static final Path DEFAULT_DIR = Path.of("build", "answer-cache");
+
+    private final Path dir;
+
+    AnswerCache(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Returns the cached answers of the given solver for the given input file, or {@code null} if they are not
+     * cached. An unreadable input file or cache entry is also considered a cache miss, so that the day is executed
+     * (and fails) as without the cache.
+     */
+    Answers get(Solver<?> solver, Path inputPath) {
+        var file = entryFile(solver, inputPath);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            return lines.size() == 2 ? new Answers(lines.get(0), lines.get(1)) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the answers of the given solver for the given input file, and removes the stale entries of the solver.
+     */
+    void put(Solver<?> solver, Path inputPath, Answers answers) {
+        var file = entryFile(solver, inputPath);
+        if (file == null) {
+            return;
+        }
+        var prefix = solver.getClass().getSimpleName() + "-";
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                for (var stale : files.filter(f -> f.getFileName().toString().startsWith(prefix)).toList()) {
+                    Files.deleteIfExists(stale);
+                }
+            }
+            Files.write(file, List.of(answers.part1(), answers.part2()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Returns the file of the cache entry, or {@code null} if the input file cannot be read.
+     */
+    private Path entryFile(Solver<?> solver, Path inputPath) {
+        var digest = sha256();
+        try {
+            digest.update(Files.readAllBytes(inputPath));
+        } catch (IOException e) {
+            return null;
+        }
+        Arrays.stream(solver.getClass().getNestMembers())
+                .sorted(Comparator.comparing(Class::getName))
+                .forEach(cl -> digest.update(classBytes(cl)));
+        return dir.resolve(solver.getClass().getSimpleName() + "-" + HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static byte[] classBytes(Class<?> cl) {
+        var resource = cl.getName().substring(cl.getPackageName().length() + 1) + ".class";
+        try (InputStream in = cl.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Class file not found: " + cl.getName());
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The status of the cache for a day.
+     */
+    enum Status {
+        /** The cache is not used. */
+        OFF,
+        /** The answers were taken from the cache. */
+        HIT,
+        /** The answers were computed (and stored in the cache). */
+        MISS
+    }
+
+}
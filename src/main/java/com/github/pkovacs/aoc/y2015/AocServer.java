@@ -0,0 +1,183 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.github.pkovacs.aoc.y2015.AllDays.Day;
+
+/**
+ * A long-lived server that solves the days registered in {@link AllDays} on request. As the JVM keeps running,
+ * the classes stay loaded and the JIT-compiled code stays warm, so repeated solves run at steady-state speed
+ * without paying for the JVM startup each time.
+ * <p>
+ * The server listens on a loopback TCP port ({@code --port N}, default: {@value #DEFAULT_PORT}) or on a Unix
+ * domain socket ({@code --socket PATH}). It handles a simple line-based text protocol, so any client like
+ * {@code nc} can be used, e.g. {@code echo "solve 4" | nc localhost 2015}. The following commands are supported:
+ * <ul>
+ * <li>{@code solve N [FILE]}: solves day {@code N} for the given input file (default: the standard input file of
+ *     the day). The reply is {@code OK part1=... part2=... parseMicros=... solveMicros=... allocatedBytes=...}.</li>
+ * <li>{@code days}: lists the available days</li>
+ * <li>{@code quit}: closes the connection</li>
+ * <li>{@code shutdown}: stops the server</li>
+ * </ul>
+ * Errors are replied as {@code ERROR message}. Each connection is handled on its own virtual thread, so multiple
+ * clients can be served concurrently. The solvers are executed by a pool of platform threads (one per available
+ * processor), because the allocation of virtual threads cannot be measured.
+ */
+public class AocServer {
+
+    static final int DEFAULT_PORT = 2015;
+
+    private final ServerSocketChannel server;
+    private final ExecutorService solverPool;
+
+    private AocServer(ServerSocketChannel server, ExecutorService solverPool) {
+        this.server = server;
+        this.solverPool = solverPool;
+    }
+
+    public static void main(String[] args) throws IOException {
+        SocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT);
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                        Integer.parseInt(getValue(args, ++i)));
+                case "--socket" -> address = UnixDomainSocketAddress.of(getValue(args, ++i));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        ServerSocketChannel channel;
+        if (address instanceof UnixDomainSocketAddress unixAddress) {
+            // A stale socket file of a previous server would prevent binding
+            Files.deleteIfExists(unixAddress.getPath());
+            channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            channel = ServerSocketChannel.open();
+        }
+        try (channel; var solverPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            channel.bind(address);
+            System.out.println("AocServer listening on " + channel.getLocalAddress());
+            new AocServer(channel, solverPool).serve();
+        } finally {
+            if (address instanceof UnixDomainSocketAddress unixAddress) {
+                Files.deleteIfExists(unixAddress.getPath());
+            }
+        }
+    }
+
+    private static String getValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private void serve() throws IOException {
+        while (true) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (ClosedChannelException e) {
+                // Shutdown was requested
+                return;
+            }
+            Thread.ofVirtual().name("aoc-client").start(() -> handle(client));
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (client;
+             var reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(client),
+                     StandardCharsets.UTF_8));
+             var writer = new PrintWriter(Channels.newOutputStream(client), true, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var tokens = line.trim().split("\\s+");
+                switch (tokens[0]) {
+                    case "" -> {
+                    }
+                    case "solve" -> writer.println(execute(tokens));
+                    case "days" -> writer.println(listDays());
+                    case "quit" -> {
+                        return;
+                    }
+                    case "shutdown" -> {
+                        writer.println("OK shutting down");
+                        server.close();
+                        return;
+                    }
+                    default -> writer.println("ERROR unknown command: " + tokens[0]);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        }
+    }
+
+    private String execute(String[] tokens) {
+        try {
+            return solverPool.submit(() -> solve(tokens)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR interrupted";
+        } catch (ExecutionException e) {
+            return "ERROR " + e.getCause();
+        }
+    }
+
+    private static String solve(String[] tokens) {
+        if (tokens.length < 2 || tokens.length > 3) {
+            return "ERROR usage: solve N [FILE]";
+        }
+
+        Day day;
+        try {
+            day = AllDays.findDay(Integer.parseInt(tokens[1])).orElse(null);
+        } catch (NumberFormatException e) {
+            day = null;
+        }
+        if (day == null) {
+            return "ERROR unknown day: " + tokens[1];
+        }
+
+        var inputPath = tokens.length == 3 ? Path.of(tokens[2]) : AocUtils.getInputPath(day.solver().getClass());
+        if (!Files.isReadable(inputPath)) {
+            return "ERROR input file not found: " + inputPath.toAbsolutePath();
+        }
+
+        var execution = Execution.measure(day.solver(), inputPath);
+        if (execution.answers() == null) {
+            return "ERROR " + day.name() + " failed for " + inputPath;
+        }
+        return String.format("OK part1=%s part2=%s parseMicros=%d solveMicros=%d allocatedBytes=%d",
+                execution.answers().part1(), execution.answers().part2(), execution.parseNanos() / 1000,
+                execution.solveNanos() / 1000, execution.allocatedBytes());
+    }
+
+    private static String listDays() {
+        return "OK " + AllDays.DAYS.stream()
+                .filter(day -> day.solver() != null)
+                .map(day -> day.solver().getClass().getSimpleName().substring(3))
+                .collect(Collectors.joining(" "));
+    }
+
+}
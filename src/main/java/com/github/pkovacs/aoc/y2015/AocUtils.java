@@ -9,17 +9,37 @@ import java.util.Locale;
  */
 public final class AocUtils {
 
+    private static final StackWalker stackWalker = StackWalker.getInstance(Option.RETAIN_CLASS_REFERENCE);
+
+    /** The input paths are resolved only once for each class. */
+    private static final ClassValue<Path> inputPaths = new ClassValue<>() {
+        @Override
+        protected Path computeValue(Class<?> cl) {
+            var fileName = cl.getSimpleName().toLowerCase(Locale.ROOT) + ".txt";
+            return Path.of("input", fileName);
+        }
+    };
+
     private AocUtils() {
     }
 
     /**
      * Returns a {@link Path} object that locates the input file corresponding to the caller class.
      * For example, if this method is called from class {@code Day05}, then {@code "input/day05.txt"} is located.
+     * <p>
+     * This method walks the stack on each call, so {@link #getInputPath(Class)} should be preferred in code
+     * that is executed repeatedly.
      */
     public static Path getInputPath() {
-        var cl = StackWalker.getInstance(Option.RETAIN_CLASS_REFERENCE).getCallerClass();
-        var fileName = cl.getSimpleName().toLowerCase(Locale.ROOT) + ".txt";
-        return Path.of("input", fileName);
+        return getInputPath(stackWalker.getCallerClass());
+    }
+
+    /**
+     * Returns a {@link Path} object that locates the input file corresponding to the given class.
+     * For example, for class {@code Day05}, {@code "input/day05.txt"} is located.
+     */
+    public static Path getInputPath(Class<?> cl) {
+        return inputPaths.get(cl);
     }
 
 }
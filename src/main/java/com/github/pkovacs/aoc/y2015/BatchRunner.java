@@ -0,0 +1,150 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import com.github.pkovacs.aoc.y2015.AllDays.Day;
+import com.github.pkovacs.util.InputCache;
+
+/**
+ * Solves many input files with the solvers registered in {@link AllDays}.
+ * <p>
+ * Usage: {@code BatchRunner [--threads N] [--day N] DIR}. By default, {@code DIR} has to contain a subdirectory
+ * for each day to be solved, named like the standard input files (e.g. {@code day04}), and each file in these
+ * subdirectories is solved by the corresponding solver. With {@code --day N}, the files of {@code DIR} itself are
+ * solved by the solver of the given day.
+ * <p>
+ * Each input file is handled on its own virtual thread: the file is loaded into the {@link InputCache} first without
+ * holding a permit, then the solver is executed. The solving is bounded by a semaphore with
+ * {@code N} permits (default: the number of available processors), so the blocking file reads overlap with the
+ * CPU-bound work, but the number of concurrently running solvers does not exceed the number of cores. The read-ahead
+ * is bounded by a second semaphore: at most {@code 2*N} files (but no more than {@link InputCache#MAX_ENTRIES}) are
+ * loaded and not yet solved at any time, so the files are not read (and evicted from the cache) long before the
+ * solvers get to them. The answers and timings are printed for each input file, followed by the aggregate
+ * throughput.
+ */
+public class BatchRunner {
+
+    private static final int READ_AHEAD_FACTOR = 2;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Day singleDay = null;
+        Path dir = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(getValue(args, ++i));
+                case "--day" -> {
+                    var number = getValue(args, ++i);
+                    singleDay = AllDays.findDay(Integer.parseInt(number))
+                            .orElseThrow(() -> new IllegalArgumentException("Unknown day: " + number));
+                }
+                default -> {
+                    if (dir != null || args[i].startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    }
+                    dir = Path.of(args[i]);
+                }
+            }
+        }
+        if (dir == null || threads < 1) {
+            throw new IllegalArgumentException("Usage: BatchRunner [--threads N] [--day N] DIR");
+        }
+
+        var tasks = new ArrayList<Task>();
+        if (singleDay != null) {
+            for (var file : listFiles(dir)) {
+                tasks.add(new Task(singleDay, file));
+            }
+        } else {
+            for (var day : AllDays.DAYS) {
+                if (day.solver() != null) {
+                    var dayDir = dir.resolve(day.solver().getClass().getSimpleName().toLowerCase(Locale.ROOT));
+                    if (Files.isDirectory(dayDir)) {
+                        listFiles(dayDir).forEach(file -> tasks.add(new Task(day, file)));
+                    }
+                }
+            }
+        }
+
+        InputCache.setEnabled(true);
+        long start = System.nanoTime();
+        var permits = new Semaphore(threads);
+        var readAhead = new Semaphore((int) Math.min(InputCache.MAX_ENTRIES, (long) READ_AHEAD_FACTOR * threads));
+        int failed = 0;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = new ArrayList<Future<Execution>>();
+            for (var task : tasks) {
+                futures.add(executor.submit(() -> solve(task, readAhead, permits)));
+            }
+
+            String format = "%-8s%-32s%-16s%-16s%12s%n";
+            System.out.printf(format, "Day", "Input", "Part 1", "Part 2", "Time");
+            for (int i = 0; i < tasks.size(); i++) {
+                var task = tasks.get(i);
+                var execution = getResult(futures.get(i));
+                var answers = execution.answers();
+                failed += answers == null ? 1 : 0;
+                System.out.printf(format, task.day().name().substring(4), task.file().getFileName(),
+                        answers != null ? answers.part1() : "FAILED", answers != null ? answers.part2() : "FAILED",
+                        String.format("%.1f ms", execution.totalNanos() / 1e6));
+            }
+        }
+        long wallTime = System.nanoTime() - start;
+
+        System.out.printf("%nSolved %d input files in %.1f ms (%d failed, %d solver thread%s): %.1f inputs/s%n",
+                tasks.size(), wallTime / 1e6, failed, threads, threads > 1 ? "s" : "", tasks.size() / (wallTime / 1e9));
+    }
+
+    private static String getValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static List<Path> listFiles(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static Execution solve(Task task, Semaphore readAhead, Semaphore permits) throws InterruptedException {
+        readAhead.acquire();
+        try {
+            // Load the file without holding a permit, so the I/O overlaps with the solvers running on other threads
+            InputCache.readString(task.file());
+
+            permits.acquire();
+            try {
+                return Execution.measure(task.day().solver(), task.file());
+            } finally {
+                permits.release();
+            }
+        } finally {
+            readAhead.release();
+        }
+    }
+
+    private static Execution getResult(Future<Execution> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Task(Day day, Path file) {}
+
+}
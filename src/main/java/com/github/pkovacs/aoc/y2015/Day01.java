@@ -1,23 +1,42 @@
 package com.github.pkovacs.aoc.y2015;
 
+import java.nio.file.Path;
+
 import com.github.pkovacs.util.InputUtils;
 
-public class Day01 {
+public class Day01 implements Solver<String> {
 
     public static void main(String[] args) {
-        var line = InputUtils.readSingleLine(AocUtils.getInputPath());
+        new Day01().run(AocUtils.getInputPath(Day01.class));
+    }
+
+    @Override
+    public String parse(Path path) {
+        return InputUtils.readSingleLine(path);
+    }
 
+    @Override
+    public Answers solve(String line) {
+        return Answers.of(part1(line), part2(line));
+    }
+
+    static int part1(String line) {
         int floor = 0;
-        int firstBasement = -1;
         for (int i = 0; i < line.length(); i++) {
             floor += line.charAt(i) == '(' ? 1 : -1;
-            if (floor < 0 && firstBasement < 0) {
-                firstBasement = i + 1;
-            }
         }
+        return floor;
+    }
 
-        System.out.println("Part 1: " + floor);
-        System.out.println("Part 2: " + firstBasement);
+    static int part2(String line) {
+        int floor = 0;
+        for (int i = 0; i < line.length(); i++) {
+            floor += line.charAt(i) == '(' ? 1 : -1;
+            if (floor < 0) {
+                return i + 1;
+            }
+        }
+        return -1;
     }
 
 }
@@ -1,26 +1,100 @@
 package com.github.pkovacs.aoc.y2015;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 
+import com.github.pkovacs.util.ColumnarInput;
 import com.github.pkovacs.util.InputUtils;
+import com.github.pkovacs.util.MappedLines;
 
-public class Day02 {
+public class Day02 implements Solver<ColumnarInput> {
 
     public static void main(String[] args) {
-        var lines = InputUtils.readLines(AocUtils.getInputPath());
-
-        int paper = 0;
-        int ribbon = 0;
-        for (var line : lines) {
-            int[] dim = InputUtils.parseInts(line);
-            int[] area = new int[] { dim[0] * dim[1], dim[0] * dim[2], dim[1] * dim[2] };
-            int[] perim = new int[] { 2 * (dim[0] + dim[1]), 2 * (dim[0] + dim[2]), 2 * (dim[1] + dim[2]) };
-            paper += 2 * Arrays.stream(area).sum() + Arrays.stream(area).min().orElseThrow();
-            ribbon += Arrays.stream(perim).min().orElseThrow() + dim[0] * dim[1] * dim[2];
+        if (args.length > 0) {
+            Solver.print(solveMapped(Path.of(args[0])));
+        } else {
+            new Day02().run(AocUtils.getInputPath(Day02.class));
+        }
+    }
+
+    @Override
+    public ColumnarInput parse(Path path) {
+        return ColumnarInput.parse(path, "%dx%dx%d");
+    }
+
+    @Override
+    public Answers solve(ColumnarInput boxes) {
+        return Answers.of(part1(boxes), part2(boxes));
+    }
+
+    /**
+     * Solves the puzzle for the given (possibly huge) input file by streaming its memory-mapped lines in parallel
+     * instead of reading them into memory.
+     */
+    static Answers solveMapped(Path path) {
+        try (var lines = MappedLines.lines(path)) {
+            var totals = lines.parallel().collect(Totals::new, Totals::add, Totals::merge);
+            return Answers.of(totals.paper, totals.ribbon);
+        }
+    }
+
+    static long part1(ColumnarInput boxes) {
+        int[] l = boxes.ints(0);
+        int[] w = boxes.ints(1);
+        int[] h = boxes.ints(2);
+        long paper = 0;
+        for (int i = 0; i < boxes.rowCount(); i++) {
+            paper += paper(l[i], w[i], h[i]);
+        }
+        return paper;
+    }
+
+    static long part2(ColumnarInput boxes) {
+        int[] l = boxes.ints(0);
+        int[] w = boxes.ints(1);
+        int[] h = boxes.ints(2);
+        long ribbon = 0;
+        for (int i = 0; i < boxes.rowCount(); i++) {
+            ribbon += ribbon(l[i], w[i], h[i]);
+        }
+        return ribbon;
+    }
+
+    private static int paper(int l, int w, int h) {
+        int[] area = new int[] { l * w, l * h, w * h };
+        return 2 * Arrays.stream(area).sum() + Arrays.stream(area).min().orElseThrow();
+    }
+
+    private static int ribbon(int l, int w, int h) {
+        int[] perim = new int[] { 2 * (l + w), 2 * (l + h), 2 * (w + h) };
+        return Arrays.stream(perim).min().orElseThrow() + l * w * h;
+    }
+
+    /**
+     * Accumulates the totals for the lines processed by a thread, parsing each line into a reused buffer.
+     */
+    private static final class Totals {
+
+        private final int[] dim = new int[3];
+        private long paper;
+        private long ribbon;
+
+        void add(CharSequence line) {
+            if (line.isEmpty()) {
+                return;
+            }
+            if (InputUtils.parseInts(line, dim) != dim.length) {
+                throw new IllegalArgumentException("Invalid dimensions: " + line);
+            }
+            paper += paper(dim[0], dim[1], dim[2]);
+            ribbon += ribbon(dim[0], dim[1], dim[2]);
+        }
+
+        void merge(Totals other) {
+            paper += other.paper;
+            ribbon += other.ribbon;
         }
 
-        System.out.println("Part 1: " + paper);
-        System.out.println("Part 2: " + ribbon);
     }
 
 }
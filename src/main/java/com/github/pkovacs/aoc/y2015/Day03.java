@@ -1,24 +1,37 @@
 package com.github.pkovacs.aoc.y2015;
 
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
 
 import com.github.pkovacs.util.InputUtils;
 import com.github.pkovacs.util.data.Tile;
 
-public class Day03 {
+public class Day03 implements Solver<String> {
 
     public static void main(String[] args) {
-        var input = InputUtils.readSingleLine(AocUtils.getInputPath());
+        new Day03().run(AocUtils.getInputPath(Day03.class));
+    }
 
-        var set1 = run(input, 0, 1);
+    @Override
+    public String parse(Path path) {
+        return InputUtils.readSingleLine(path);
+    }
 
-        var set2 = run(input, 0, 2);
-        var robot = run(input, 1, 2);
-        set2.addAll(robot);
+    @Override
+    public Answers solve(String input) {
+        return Answers.of(part1(input), part2(input));
+    }
 
-        System.out.println("Part 1: " + set1.size());
-        System.out.println("Part 2: " + set2.size());
+    static int part1(String input) {
+        return run(input, 0, 1).size();
+    }
+
+    static int part2(String input) {
+        var set = run(input, 0, 2);
+        var robot = run(input, 1, 2);
+        set.addAll(robot);
+        return set.size();
     }
 
     private static Set<Tile> run(String input, int start, int step) {
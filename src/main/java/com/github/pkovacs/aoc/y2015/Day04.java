@@ -1,34 +1,74 @@
 package com.github.pkovacs.aoc.y2015;
 
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 import com.github.pkovacs.util.InputUtils;
-import com.google.common.hash.Hashing;
+import com.github.pkovacs.util.Md5NonceHasher;
+import com.github.pkovacs.util.Md5NonceVectorHasher;
+import com.github.pkovacs.util.alg.ParallelSearch;
+import com.github.pkovacs.util.alg.ParallelSearch.ChunkScanner;
 
-public class Day04 {
+public class Day04 implements Solver<String> {
 
     public static void main(String[] args) {
-        var secret = InputUtils.readSingleLine(AocUtils.getInputPath());
-
-        int index1 = -1;
-        int index2 = -1;
-        for (int i = 1; index1 < 0 || index2 < 0; i++) {
-            var hash = getMd5Hash(secret + i);
-            if (hash.startsWith("00000") && index1 < 0) {
-                index1 = i;
-            }
-            if (hash.startsWith("000000") && index2 < 0) {
-                index2 = i;
-            }
-        }
+        new Day04().run(AocUtils.getInputPath(Day04.class));
+    }
 
-        System.out.println("Part 1: " + index1);
-        System.out.println("Part 2: " + index2);
+    @Override
+    public String parse(Path path) {
+        return InputUtils.readSingleLine(path);
     }
 
-    @SuppressWarnings("deprecation")
-    private static String getMd5Hash(String s) {
-        return Hashing.md5().hashString(s, StandardCharsets.UTF_8).toString();
+    @Override
+    public Answers solve(String secret) {
+        var indices = findIndices(secret);
+        return Answers.of(indices[0], indices[1]);
+    }
+
+    /**
+     * Finds the first indices for both parts (five and six leading zeros) in a single parallel search.
+     */
+    static long[] findIndices(String secret) {
+        int[] masks = { Md5NonceHasher.leadingZeroMask(5), Md5NonceHasher.leadingZeroMask(6) };
+        boolean vector = Md5NonceHasher.isVectorHasherSupported(secret);
+        return ParallelSearch.findFirst(1, Long.MAX_VALUE, masks.length,
+                () -> vector ? vectorScanner(secret, masks) : scalarScanner(secret, masks));
+    }
+
+    static ChunkScanner scalarScanner(String secret, int[] masks) {
+        var hasher = new Md5NonceHasher(secret, 0);
+        return (start, end, matches) -> {
+            int found = 0;
+            hasher.setNonce(start);
+            for (long i = start; i < end && found < masks.length; i++, hasher.next()) {
+                int word = hasher.firstWord();
+                for (int p = 0; p < masks.length; p++) {
+                    if (matches[p] < 0 && (word & masks[p]) == 0) {
+                        matches[p] = i;
+                        found++;
+                    }
+                }
+            }
+        };
+    }
+
+    static ChunkScanner vectorScanner(String secret, int[] masks) {
+        var hasher = new Md5NonceVectorHasher(secret, 0);
+        int[] lanes = new int[masks.length];
+        return (start, end, matches) -> {
+            int found = 0;
+            hasher.setNonce(start);
+            for (long i = start; i < end && found < masks.length; i += hasher.laneCount(), hasher.next()) {
+                hasher.findLanes(masks, lanes);
+                for (int p = 0; p < masks.length; p++) {
+                    int lane = lanes[p];
+                    if (matches[p] < 0 && lane >= 0 && i + lane < end) {
+                        matches[p] = i + lane;
+                        found++;
+                    }
+                }
+            }
+        };
     }
 
 }
@@ -1,26 +1,65 @@
 package com.github.pkovacs.aoc.y2015;
 
+import java.nio.file.Path;
+import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import com.github.pkovacs.util.InputUtils;
+import com.github.pkovacs.util.MappedLines;
 
-public class Day05 {
+public class Day05 implements Solver<List<String>> {
 
     public static void main(String[] args) {
-        var lines = InputUtils.readLines(AocUtils.getInputPath());
+        if (args.length > 0) {
+            Solver.print(solveMapped(Path.of(args[0])));
+        } else {
+            new Day05().run(AocUtils.getInputPath(Day05.class));
+        }
+    }
+
+    @Override
+    public List<String> parse(Path path) {
+        return InputUtils.readLines(path);
+    }
+
+    @Override
+    public Answers solve(List<String> lines) {
+        return Answers.of(part1(lines), part2(lines));
+    }
+
+    /**
+     * Solves the puzzle for the given (possibly huge) input file by streaming its memory-mapped lines in parallel
+     * instead of reading them into memory.
+     */
+    static Answers solveMapped(Path path) {
+        try (var lines = MappedLines.lines(path)) {
+            var counts = lines.parallel().collect(Counts::new, Counts::add, Counts::merge);
+            return Answers.of(counts.nice1, counts.nice2);
+        }
+    }
+
+    static long part1(List<String> lines) {
+        return lines.stream().filter(Day05::isNice1).count();
+    }
 
-        System.out.println("Part 1: " + lines.stream().filter(Day05::isNice1).count());
-        System.out.println("Part 2: " + lines.stream().filter(Day05::isNice2).count());
+    static long part2(List<String> lines) {
+        return lines.stream().filter(Day05::isNice2).count();
     }
 
-    private static boolean isNice1(String s) {
-        long vowelCount = IntStream.range(0, s.length()).filter(i -> "aeiou".contains(s.substring(i, i + 1))).count();
+    private static boolean isNice1(CharSequence s) {
+        long vowelCount = IntStream.range(0, s.length()).filter(i -> "aeiou".indexOf(s.charAt(i)) >= 0).count();
         boolean containsDouble = IntStream.range(0, s.length() - 1).anyMatch(i -> s.charAt(i) == s.charAt(i + 1));
-        return vowelCount >= 3 && containsDouble && Stream.of("ab", "cd", "pq", "xy").noneMatch(s::contains);
+        return vowelCount >= 3 && containsDouble
+                && Stream.of("ab", "cd", "pq", "xy").noneMatch(pair -> containsPair(s, pair));
     }
 
-    private static boolean isNice2(String s) {
+    private static boolean containsPair(CharSequence s, String pair) {
+        return IntStream.range(0, s.length() - 1)
+                .anyMatch(i -> s.charAt(i) == pair.charAt(0) && s.charAt(i + 1) == pair.charAt(1));
+    }
+
+    private static boolean isNice2(CharSequence s) {
         boolean rep1 = IntStream.range(0, s.length() - 3)
                 .anyMatch(i -> IntStream.range(i + 2, s.length() - 1)
                         .anyMatch(j -> s.charAt(i) == s.charAt(j) && s.charAt(i + 1) == s.charAt(j + 1)));
@@ -29,4 +68,28 @@ public class Day05 {
         return rep1 && rep2;
     }
 
+    /**
+     * Counts the nice strings according to both rules in a single pass over the lines processed by a thread.
+     */
+    private static final class Counts {
+
+        private long nice1;
+        private long nice2;
+
+        void add(CharSequence line) {
+            if (isNice1(line)) {
+                nice1++;
+            }
+            if (isNice2(line)) {
+                nice2++;
+            }
+        }
+
+        void merge(Counts other) {
+            nice1 += other.nice1;
+            nice2 += other.nice2;
+        }
+
+    }
+
 }
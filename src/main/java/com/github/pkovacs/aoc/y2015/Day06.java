@@ -1,50 +1,115 @@
 package com.github.pkovacs.aoc.y2015;
 
-import java.util.Arrays;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.ArrayList;
 
-import com.github.pkovacs.util.InputUtils;
+import com.github.pkovacs.util.ColumnarInput;
+import com.github.pkovacs.util.data.BitGrid;
+import com.github.pkovacs.util.data.CompressedGrid;
 
-public class Day06 {
+public class Day06 implements Solver<Day06.Instructions> {
+
+    private static final int SIZE = 1000;
+
+    enum Command {
+        TURN_ON, TURN_OFF, TOGGLE;
+
+        static Command of(String word) {
+            return switch (word) {
+                case "turn on" -> TURN_ON;
+                case "turn off" -> TURN_OFF;
+                case "toggle" -> TOGGLE;
+                default -> throw new IllegalArgumentException("Unknown command: " + word);
+            };
+        }
+    }
+
+    /**
+     * The instructions in column-oriented form: the command and the rectangle of the i-th instruction are
+     * {@code commands[i]} and {@code (x1[i], y1[i]) - (x2[i], y2[i])}, respectively.
+     */
+    record Instructions(Command[] commands, int[] x1, int[] y1, int[] x2, int[] y2) {
+
+        int count() {
+            return commands.length;
+        }
+
+    }
 
     public static void main(String[] args) {
-        var lines = InputUtils.readLines(AocUtils.getInputPath());
-
-        System.out.println("Part 1: " + solve(lines, true));
-        System.out.println("Part 2: " + solve(lines, false));
-    }
-
-    private static long solve(List<String> lines, boolean simple) {
-        int[][] lights = new int[1000][1000];
-        for (var line : lines) {
-            var parts = InputUtils.scan(line, "%s %d,%d through %d,%d");
-            var cmd = parts.get(0).get();
-            var x1 = parts.get(1).asInt();
-            var y1 = parts.get(2).asInt();
-            var x2 = parts.get(3).asInt();
-            var y2 = parts.get(4).asInt();
-
-            if (cmd.startsWith("turn")) {
-                boolean on = cmd.endsWith("on");
-                for (int x = x1; x <= x2; x++) {
-                    for (int y = y1; y <= y2; y++) {
-                        lights[x][y] = simple
-                                ? (on ? 1 : 0)
-                                : (on ? lights[x][y] + 1 : Math.max(lights[x][y] - 1, 0));
-                    }
-                }
-            } else if (cmd.equals("toggle")) {
-                for (int x = x1; x <= x2; x++) {
-                    for (int y = y1; y <= y2; y++) {
-                        lights[x][y] = simple ? 1 - lights[x][y] : lights[x][y] + 2;
-                    }
-                }
-            } else {
-                throw new IllegalArgumentException("Unknown command: " + cmd);
-            }
-        }
-
-        return Arrays.stream(lights).mapToLong(a -> Arrays.stream(a).sum()).sum();
+        new Day06().run(AocUtils.getInputPath(Day06.class));
+    }
+
+    @Override
+    public Instructions parse(Path path) {
+        var input = ColumnarInput.parse(path, "%s %d,%d through %d,%d");
+        var dictionary = input.dictionary(0).stream().map(Command::of).toArray(Command[]::new);
+        byte[] codes = input.codes(0);
+        var commands = new Command[input.rowCount()];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = dictionary[codes[i] & 0xFF];
+        }
+        return new Instructions(commands, input.ints(1), input.ints(2), input.ints(3), input.ints(4));
+    }
+
+    @Override
+    public Answers solve(Instructions ins) {
+        // Both parts are solved in a single pass over the instructions
+        var lights = new BitGrid(SIZE, SIZE);
+        var brightness = createGrid(ins);
+        for (int i = 0; i < ins.count(); i++) {
+            switchLights(ins, i, lights);
+            adjustBrightness(ins, i, brightness);
+        }
+        return Answers.of(lights.count(), brightness.sum());
+    }
+
+    static long part1(Instructions ins) {
+        var lights = new BitGrid(SIZE, SIZE);
+        for (int i = 0; i < ins.count(); i++) {
+            switchLights(ins, i, lights);
+        }
+        return lights.count();
+    }
+
+    static long part2(Instructions ins) {
+        var brightness = createGrid(ins);
+        for (int i = 0; i < ins.count(); i++) {
+            adjustBrightness(ins, i, brightness);
+        }
+        return brightness.sum();
+    }
+
+    private static CompressedGrid createGrid(Instructions ins) {
+        var rectangles = new ArrayList<long[]>(ins.count());
+        for (int i = 0; i < ins.count(); i++) {
+            rectangles.add(new long[] { ins.x1()[i], ins.y1()[i], ins.x2()[i], ins.y2()[i] });
+        }
+        return new CompressedGrid(rectangles);
+    }
+
+    private static void switchLights(Instructions ins, int i, BitGrid lights) {
+        int x1 = ins.x1()[i];
+        int y1 = ins.y1()[i];
+        int x2 = ins.x2()[i];
+        int y2 = ins.y2()[i];
+        switch (ins.commands()[i]) {
+            case TURN_ON -> lights.set(x1, y1, x2, y2);
+            case TURN_OFF -> lights.clear(x1, y1, x2, y2);
+            case TOGGLE -> lights.toggle(x1, y1, x2, y2);
+        }
+    }
+
+    private static void adjustBrightness(Instructions ins, int i, CompressedGrid brightness) {
+        int x1 = ins.x1()[i];
+        int y1 = ins.y1()[i];
+        int x2 = ins.x2()[i];
+        int y2 = ins.y2()[i];
+        switch (ins.commands()[i]) {
+            case TURN_ON -> brightness.add(x1, y1, x2, y2, 1);
+            case TURN_OFF -> brightness.update(x1, y1, x2, y2, v -> Math.max(v - 1, 0));
+            case TOGGLE -> brightness.add(x1, y1, x2, y2, 2);
+        }
     }
 
 }
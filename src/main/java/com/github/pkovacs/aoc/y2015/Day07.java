@@ -1,5 +1,6 @@
 package com.github.pkovacs.aoc.y2015;
 
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -12,26 +13,39 @@ import com.github.pkovacs.util.data.CounterMap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
 
-public class Day07 {
+public class Day07 implements Solver<List<String>> {
 
     enum SourceType {
         DIRECT, NOT, AND, OR, LSHIFT, RSHIFT
     }
 
     public static void main(String[] args) {
-        var input1 = InputUtils.readLines(AocUtils.getInputPath());
+        new Day07().run(AocUtils.getInputPath(Day07.class));
+    }
 
-        int solution1 = solve(input1);
+    @Override
+    public List<String> parse(Path path) {
+        return InputUtils.readLines(path);
+    }
 
-        var input2 = Stream.concat(input1.stream().filter(line -> !line.endsWith(" -> b")),
-                Stream.of(solution1 + " -> b")).toList();
-        int solution2 = solve(input2);
+    @Override
+    public Answers solve(List<String> input) {
+        int solution1 = part1(input);
+        int solution2 = part2(input, solution1);
+        return Answers.of(solution1, solution2);
+    }
 
-        System.out.println("Part 1: " + solution1);
-        System.out.println("Part 2: " + solution2);
+    static int part1(List<String> input) {
+        return getSignalA(input);
+    }
+
+    static int part2(List<String> input, int solution1) {
+        var input2 = Stream.concat(input.stream().filter(line -> !line.endsWith(" -> b")),
+                Stream.of(solution1 + " -> b")).toList();
+        return getSignalA(input2);
     }
 
-    private static int solve(List<String> input) {
+    private static int getSignalA(List<String> input) {
         return computeSignalValues(input).get("a");
     }
 
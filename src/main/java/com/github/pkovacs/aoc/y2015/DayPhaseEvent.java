@@ -0,0 +1,31 @@
+package com.github.pkovacs.aoc.y2015;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event emitted by {@link AllDays} for each phase (parse or solve) of each execution of a day.
+ * The duration of the event is the duration of the phase.
+ */
+@Name(DayPhaseEvent.NAME)
+@Label("Day Phase")
+@Category({ "Advent of Code", "Harness" })
+@Description("A phase of solving the puzzle of a day")
+final class DayPhaseEvent extends Event {
+
+    static final String NAME = "com.github.pkovacs.aoc.y2015.DayPhase";
+
+    @Label("Day")
+    String day;
+
+    @Label("Phase")
+    @Description("Either \"parse\" or \"solve\"")
+    String phase;
+
+    @Label("Success")
+    boolean success;
+
+}
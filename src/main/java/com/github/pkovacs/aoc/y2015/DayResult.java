@@ -0,0 +1,60 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import com.github.pkovacs.aoc.y2015.AllDays.Day;
+import com.github.pkovacs.aoc.y2015.Solver.Answers;
+
+/**
+ * The result of executing a day in {@link AllDays}: the answers, the measurements of the cold run and the warm
+ * iterations (if any), the CPU time of all executions of the day, and the status of the {@link AnswerCache}.
+ * If the answers were taken from the cache, the day was not executed, and all measurements are zero.
+ */
+record DayResult(Day day, Answers answers, Execution cold, List<Execution> warm, long cpuNanos,
+        AnswerCache.Status cacheStatus) {
+
+    /**
+     * Returns true if the answer of the given part (1 or 2) is the expected one.
+     */
+    boolean isCorrect(int part) {
+        if (answers == null) {
+            return false;
+        }
+        return part == 1 ? day.expected1().equals(answers.part1()) : day.expected2().equals(answers.part2());
+    }
+
+    /**
+     * Returns the statistics of the total time of the warm iterations, or {@code null} if there are none.
+     */
+    TimingStats warmStats() {
+        return warm.isEmpty() ? null : TimingStats.of(warm.stream().mapToLong(Execution::totalNanos).toArray());
+    }
+
+    /**
+     * Returns the median of the given metric over the warm iterations, or the value of the cold run if there are
+     * no warm iterations.
+     */
+    long median(ToLongFunction<Execution> metric) {
+        if (warm.isEmpty()) {
+            return metric.applyAsLong(cold);
+        }
+        long[] values = warm.stream().mapToLong(metric).sorted().toArray();
+        return values[(values.length - 1) / 2];
+    }
+
+    /**
+     * Returns the sum of the given metric over all executions (the cold run and the warm iterations).
+     */
+    long sum(ToLongFunction<Execution> metric) {
+        return metric.applyAsLong(cold) + warm.stream().mapToLong(metric).sum();
+    }
+
+    /**
+     * Returns the number of all executions (the cold run and the warm iterations).
+     */
+    int executionCount() {
+        return 1 + warm.size();
+    }
+
+}
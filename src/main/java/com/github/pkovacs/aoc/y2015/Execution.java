@@ -0,0 +1,97 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.github.pkovacs.aoc.y2015.Solver.Answers;
+
+/**
+ * Measurements of a single execution of a solver: the answers (or {@code null} if the solver failed), the time of
+ * the parse and solve phases, the number of bytes allocated by the executing thread, and the number and total time
+ * of the garbage collections during the execution.
+ * <p>
+ * Note that the GC statistics are JVM-wide, so they can only be attributed to a single day if the days are
+ * executed sequentially.
+ */
+record Execution(Answers answers, long parseNanos, long solveNanos, long allocatedBytes, long gcCount,
+        long gcMillis) {
+
+    private static final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    /**
+     * Returns the total time of the execution.
+     */
+    long totalNanos() {
+        return parseNanos + solveNanos;
+    }
+
+    /**
+     * Executes the given solver for the given input file on the current thread and measures it.
+     */
+    static Execution measure(Solver<?> solver, Path inputPath) {
+        return measureTyped(solver, inputPath);
+    }
+
+    private static <T> Execution measureTyped(Solver<T> solver, Path inputPath) {
+        long gcCountStart = totalGcCount();
+        long gcMillisStart = totalGcMillis();
+        long allocatedStart = currentAllocatedBytes();
+
+        var day = solver.getClass().getSimpleName();
+        var parseEvent = new DayPhaseEvent();
+        var solveEvent = new DayPhaseEvent();
+
+        long start = System.nanoTime();
+        long parsed = -1;
+        Answers answers = null;
+        parseEvent.begin();
+        try {
+            T input = solver.parse(inputPath);
+            parsed = System.nanoTime();
+            commit(parseEvent, day, "parse", true);
+            solveEvent.begin();
+            answers = solver.solve(input);
+            commit(solveEvent, day, "solve", true);
+        } catch (Exception e) {
+            // The execution failed, answers is null
+            commit(parsed < 0 ? parseEvent : solveEvent, day, parsed < 0 ? "parse" : "solve", false);
+        }
+        long end = System.nanoTime();
+        if (parsed < 0) {
+            parsed = end;
+        }
+
+        long allocated = allocatedStart >= 0 ? currentAllocatedBytes() - allocatedStart : -1;
+        return new Execution(answers, parsed - start, end - parsed, allocated, totalGcCount() - gcCountStart,
+                totalGcMillis() - gcMillisStart);
+    }
+
+    private static void commit(DayPhaseEvent event, String day, String phase, boolean success) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.day = day;
+            event.phase = phase;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    private static long currentAllocatedBytes() {
+        return threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()
+                ? threadBean.getCurrentThreadAllocatedBytes()
+                : -1;
+    }
+
+    private static long totalGcCount() {
+        return gcBeans.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(c -> c > 0).sum();
+    }
+
+    private static long totalGcMillis() {
+        return gcBeans.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(t -> t > 0).sum();
+    }
+
+}
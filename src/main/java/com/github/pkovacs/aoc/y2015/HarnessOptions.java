@@ -0,0 +1,87 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.nio.file.Path;
+
+/**
+ * Command line options of {@link AllDays}.
+ *
+ * @param threads the number of threads executing the days concurrently
+ * @param warmup the number of warm-up iterations (executed after the cold run, but not measured)
+ * @param repeat the number of measured iterations after the warm-up (zero means that only the cold run is executed)
+ * @param reportFile the CSV or JSON file to write the results into, or {@code null}
+ * @param profileFile the JFR file to write a profiling recording into, or {@code null}
+ * @param saveBaselineFile the file to save the measurements into as a new performance baseline, or {@code null}
+ * @param checkBaselineFile the performance baseline file to check the measurements against, or {@code null}
+ * @param margin the allowed margin over the baseline in percent
+ * @param cache whether the {@link AnswerCache} is used
+ */
+record HarnessOptions(int threads, int warmup, int repeat, Path reportFile, Path profileFile,
+        Path saveBaselineFile, Path checkBaselineFile, int margin, boolean cache) {
+
+    static final int DEFAULT_MARGIN = 25;
+
+    static HarnessOptions parse(String[] args) {
+        int threads = 1;
+        int warmup = 0;
+        int repeat = 0;
+        Path reportFile = null;
+        Path profileFile = null;
+        Path saveBaselineFile = null;
+        Path checkBaselineFile = null;
+        int margin = -1;
+        boolean cache = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--parallel" -> threads = Runtime.getRuntime().availableProcessors();
+                case "--threads" -> threads = parseInt(args, ++i, 1);
+                case "--warmup" -> warmup = parseInt(args, ++i, 0);
+                case "--repeat" -> repeat = parseInt(args, ++i, 1);
+                case "--report" -> reportFile = Path.of(getValue(args, ++i));
+                case "--profile" -> profileFile = Path.of(getValue(args, ++i));
+                case "--save-baseline" -> saveBaselineFile = Path.of(getValue(args, ++i));
+                case "--check-baseline" -> checkBaselineFile = Path.of(getValue(args, ++i));
+                case "--margin" -> margin = parseInt(args, ++i, 0);
+                case "--cache" -> cache = true;
+                case "--no-cache" -> cache = false;
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (warmup > 0 && repeat == 0) {
+            throw new IllegalArgumentException("Option --warmup requires --repeat.");
+        }
+        if (margin >= 0 && checkBaselineFile == null) {
+            throw new IllegalArgumentException("Option --margin requires --check-baseline.");
+        }
+        var options = new HarnessOptions(threads, warmup, repeat, reportFile, profileFile, saveBaselineFile,
+                checkBaselineFile, margin >= 0 ? margin : DEFAULT_MARGIN, cache);
+        if (cache && options.measuring()) {
+            throw new IllegalArgumentException("Option --cache cannot be used for measurements "
+                    + "(--repeat, --save-baseline, --check-baseline).");
+        }
+        return options;
+    }
+
+    /**
+     * Returns {@code true} if the days are executed for measuring their performance: in the repeat mode or to save
+     * or check a baseline.
+     */
+    boolean measuring() {
+        return repeat > 0 || saveBaselineFile != null || checkBaselineFile != null;
+    }
+
+    private static String getValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static int parseInt(String[] args, int index, int min) {
+        int value = Integer.parseInt(getValue(args, index));
+        if (value < min) {
+            throw new IllegalArgumentException("Invalid value for option " + args[index - 1] + ": " + value);
+        }
+        return value;
+    }
+
+}
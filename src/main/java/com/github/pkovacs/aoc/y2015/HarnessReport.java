@@ -0,0 +1,126 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the results of {@link AllDays} into a CSV or JSON file (based on the extension of the file name),
+ * so that the numbers can be compared and charted across commits. All times are in nanoseconds.
+ */
+final class HarnessReport {
+
+    private static final List<String> COLUMNS = List.of("day", "part1", "part2", "correct1", "correct2",
+            "executions", "coldParseNanos", "coldSolveNanos", "coldTotalNanos", "coldAllocatedBytes",
+            "warmMinNanos", "warmMedianNanos", "warmP90Nanos", "warmMaxNanos", "medianParseNanos",
+            "medianSolveNanos", "medianAllocatedBytes", "cpuNanos", "gcCount", "gcMillis", "cache");
+
+    private HarnessReport() {
+    }
+
+    static void write(Path file, List<DayResult> results) {
+        var fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        String content;
+        if (fileName.endsWith(".csv")) {
+            content = toCsv(results);
+        } else if (fileName.endsWith(".json")) {
+            content = toJson(results);
+        } else {
+            throw new IllegalArgumentException("Unsupported report format (use .csv or .json): " + file);
+        }
+
+        try {
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static String toCsv(List<DayResult> results) {
+        var sb = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        for (var result : results) {
+            sb.append(values(result).stream().map(HarnessReport::csvValue).collect(Collectors.joining(",")))
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String toJson(List<DayResult> results) {
+        var sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"timestamp\": ").append(jsonValue(Instant.now().toString())).append(",\n");
+        sb.append("  \"javaVersion\": ").append(jsonValue(System.getProperty("java.version"))).append(",\n");
+        sb.append("  \"days\": [");
+        for (int i = 0; i < results.size(); i++) {
+            var values = values(results.get(i));
+            sb.append(i == 0 ? "\n" : ",\n").append("    {");
+            for (int j = 0; j < COLUMNS.size(); j++) {
+                sb.append(j == 0 ? "" : ", ").append(jsonValue(COLUMNS.get(j))).append(": ")
+                        .append(jsonValue(values.get(j)));
+            }
+            sb.append('}');
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+
+    private static List<Object> values(DayResult result) {
+        var answers = result.answers();
+        var cold = result.cold();
+        var stats = result.warmStats();
+        return List.of(result.day().name(),
+                answers != null ? answers.part1() : "",
+                answers != null ? answers.part2() : "",
+                result.isCorrect(1),
+                result.isCorrect(2),
+                result.executionCount(),
+                cold.parseNanos(),
+                cold.solveNanos(),
+                cold.totalNanos(),
+                cold.allocatedBytes(),
+                stats != null ? stats.min() : cold.totalNanos(),
+                stats != null ? stats.median() : cold.totalNanos(),
+                stats != null ? stats.p90() : cold.totalNanos(),
+                stats != null ? stats.max() : cold.totalNanos(),
+                result.median(Execution::parseNanos),
+                result.median(Execution::solveNanos),
+                result.median(Execution::allocatedBytes),
+                result.cpuNanos(),
+                result.sum(Execution::gcCount),
+                result.sum(Execution::gcMillis),
+                result.cacheStatus().name().toLowerCase(Locale.ROOT));
+    }
+
+    private static String csvValue(Object value) {
+        var s = value.toString();
+        return s.contains(",") || s.contains("\"") ? "\"" + s.replace("\"", "\"\"") + "\"" : s;
+    }
+
+    private static String jsonValue(Object value) {
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        var sb = new StringBuilder("\"");
+        for (char ch : value.toString().toCharArray()) {
+            switch (ch) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> {
+                    if (ch < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        sb.append(ch);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+}
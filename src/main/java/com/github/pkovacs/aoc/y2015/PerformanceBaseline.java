@@ -0,0 +1,125 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time and allocation budgets of the days for {@link AllDays}, stored in a simple CSV file. The budget of a day is
+ * the median total time (parse and solve) and the median number of allocated bytes measured when the baseline was
+ * saved. (Without the repeat mode, these are the values of the cold run, so the baseline should be saved and
+ * checked with the same options.)
+ *
+ * @param budgets the budgets associated with the names of the days
+ * @param options a short description of the harness options the baseline was measured with
+ */
+record PerformanceBaseline(Map<String, Budget> budgets, String options) {
+
+    /**
+     * Differences in time below this threshold are never considered regressions, because they are dominated by
+     * measurement noise.
+     */
+    static final long MIN_TIME_DELTA_NANOS = 1_000_000L;
+
+    private static final String HEADER = "day,totalNanos,allocatedBytes";
+    private static final String OPTIONS_PREFIX = "# options: ";
+
+    /**
+     * Creates a baseline from the results of a run.
+     */
+    static PerformanceBaseline of(List<DayResult> results, HarnessOptions options) {
+        var budgets = new LinkedHashMap<String, Budget>();
+        for (var result : results) {
+            budgets.put(result.day().name(), new Budget(result.median(Execution::totalNanos),
+                    result.median(Execution::allocatedBytes)));
+        }
+        return new PerformanceBaseline(budgets, describe(options));
+    }
+
+    static PerformanceBaseline read(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        var budgets = new LinkedHashMap<String, Budget>();
+        String options = "";
+        for (var line : lines) {
+            if (line.startsWith(OPTIONS_PREFIX)) {
+                options = line.substring(OPTIONS_PREFIX.length());
+            } else if (!line.isBlank() && !line.startsWith("#") && !line.equals(HEADER)) {
+                var parts = line.split(",");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Invalid baseline line in " + file + ": " + line);
+                }
+                budgets.put(parts[0], new Budget(Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+            }
+        }
+        return new PerformanceBaseline(budgets, options);
+    }
+
+    void write(Path file) {
+        var sb = new StringBuilder();
+        sb.append("# Performance baseline of AllDays (regenerate with --save-baseline)\n");
+        sb.append(OPTIONS_PREFIX).append(options).append('\n');
+        sb.append(HEADER).append('\n');
+        budgets.forEach((day, budget) -> sb.append(day).append(',').append(budget.totalNanos()).append(',')
+                .append(budget.allocatedBytes()).append('\n'));
+        try {
+            Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Checks the given results against the budgets, allowing the given relative margin (e.g. {@code 0.25} for 25%).
+     *
+     * @return the descriptions of the regressions (an empty list if all days are within their budgets)
+     */
+    List<String> check(List<DayResult> results, double margin) {
+        var regressions = new ArrayList<String>();
+        for (var result : results) {
+            var name = result.day().name();
+            var budget = budgets.get(name);
+            if (budget == null) {
+                regressions.add(name + ": no budget in the baseline");
+                continue;
+            }
+
+            long time = result.median(Execution::totalNanos);
+            if (time > budget.totalNanos() * (1 + margin) && time - budget.totalNanos() >= MIN_TIME_DELTA_NANOS) {
+                regressions.add(String.format("%s: time %.1f ms, budget %.1f ms (%s)", name, time / 1e6,
+                        budget.totalNanos() / 1e6, formatDelta(time, budget.totalNanos())));
+            }
+
+            long bytes = result.median(Execution::allocatedBytes);
+            if (bytes >= 0 && budget.allocatedBytes() >= 0 && bytes > budget.allocatedBytes() * (1 + margin)) {
+                regressions.add(String.format("%s: allocation %d bytes, budget %d bytes (%s)", name, bytes,
+                        budget.allocatedBytes(), formatDelta(bytes, budget.allocatedBytes())));
+            }
+        }
+        return regressions;
+    }
+
+    static String describe(HarnessOptions options) {
+        return "threads=" + options.threads() + ", warmup=" + options.warmup() + ", repeat=" + options.repeat();
+    }
+
+    private static String formatDelta(long actual, long budget) {
+        return budget == 0 ? "new" : String.format("%+.1f%%", (actual - budget) * 100.0 / budget);
+    }
+
+    /**
+     * The time and allocation budget of a day.
+     */
+    record Budget(long totalNanos, long allocatedBytes) {}
+
+}
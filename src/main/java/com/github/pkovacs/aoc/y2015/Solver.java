@@ -0,0 +1,57 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.nio.file.Path;
+
+/**
+ * Common interface of the solutions. A solver parses the input file into a puzzle-specific representation, and
+ * then it solves both parts of the puzzle based on it. The solvers return the answers instead of printing them, so
+ * they can be executed many times in the same JVM, even concurrently.
+ *
+ * @param <T> the type of the parsed input
+ */
+public interface Solver<T> {
+
+    /**
+     * Reads and parses the given input file.
+     */
+    T parse(Path inputPath);
+
+    /**
+     * Solves both parts of the puzzle for the given parsed input.
+     */
+    Answers solve(T input);
+
+    /**
+     * Reads and parses the given input file, and solves both parts of the puzzle.
+     */
+    default Answers solve(Path inputPath) {
+        return solve(parse(inputPath));
+    }
+
+    /**
+     * Solves the puzzle for the given input file and prints the answers to the standard output.
+     */
+    default void run(Path inputPath) {
+        print(solve(inputPath));
+    }
+
+    /**
+     * Prints the given answers to the standard output.
+     */
+    static void print(Answers answers) {
+        System.out.println("Part 1: " + answers.part1());
+        System.out.println("Part 2: " + answers.part2());
+    }
+
+    /**
+     * The answers for the two parts of a puzzle.
+     */
+    record Answers(String part1, String part2) {
+
+        public static Answers of(Object part1, Object part2) {
+            return new Answers(String.valueOf(part1), String.valueOf(part2));
+        }
+
+    }
+
+}
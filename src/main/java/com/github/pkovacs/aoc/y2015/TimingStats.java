@@ -0,0 +1,49 @@
+package com.github.pkovacs.aoc.y2015;
+
+import java.util.Arrays;
+
+/**
+ * Summary statistics of repeated time measurements.
+ */
+record TimingStats(long min, long median, long p90, long max, double mean, double stdDev) {
+
+    /**
+     * The coefficient of variation above which the measurements are considered unsettled.
+     */
+    static final double UNSETTLED_THRESHOLD = 0.1;
+
+    /**
+     * Computes the statistics of the given non-empty array of measurements.
+     */
+    static TimingStats of(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElseThrow();
+        double variance = Arrays.stream(sorted).mapToDouble(s -> (s - mean) * (s - mean)).sum() / sorted.length;
+        return new TimingStats(sorted[0], percentile(sorted, 50), percentile(sorted, 90), sorted[sorted.length - 1],
+                mean, Math.sqrt(variance));
+    }
+
+    /**
+     * Returns the coefficient of variation (standard deviation relative to the mean).
+     */
+    double variation() {
+        return mean > 0 ? stdDev / mean : 0;
+    }
+
+    /**
+     * Returns true if the variation of the measurements is too large, that is, the timing has not settled yet.
+     */
+    boolean isUnsettled() {
+        return variation() > UNSETTLED_THRESHOLD;
+    }
+
+    /**
+     * Returns the given percentile of the sorted samples using the nearest-rank method.
+     */
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+}
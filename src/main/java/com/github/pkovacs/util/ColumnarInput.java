@@ -0,0 +1,296 @@
+package com.github.pkovacs.util;
+
+import java.lang.reflect.Array;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The contents of an input file consisting of uniform records (one per line) parsed into column-oriented primitive
+ * arrays. This allows solutions to process the records by simple loops over flat arrays instead of lists of objects.
+ * <p>
+ * The records are described by a {@link ScanTemplate} pattern, e.g. {@code "%s %d,%d through %d,%d"}. Each value
+ * of the pattern becomes a column, indexed from zero in the order of their occurrence:
+ * <ul>
+ *     <li>"%d" values are stored in an {@code int[]} (see {@link #ints(int)}) or, if the file is parsed by
+ *     {@link #parseLongs(Path, String)}, in a {@code long[]} array (see {@link #longs(int)});</li>
+ *     <li>"%c" values are stored in a {@code char[]} array (see {@link #chars(int)});</li>
+ *     <li>"%s" values are dictionary-encoded: each distinct word is stored once in the dictionary of the column
+ *     (see {@link #dictionary(int)}) in the order of first occurrence, and the rows contain the indices of the
+ *     words as bytes (see {@link #codes(int)}). Therefore, at most {@link #MAX_DICTIONARY_SIZE} distinct words are
+ *     allowed, which suits enum-like words such as commands.</li>
+ * </ul>
+ * The file is split into chunks at line boundaries, which are parsed in parallel, and then the columns of the
+ * chunks are concatenated. Empty lines are skipped.
+ * <p>
+ * The arrays are returned without copying them, so they should not be modified.
+ */
+public final class ColumnarInput {
+
+    /** The maximum number of distinct words in a "%s" column. */
+    public static final int MAX_DICTIONARY_SIZE = 256;
+
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    private final ScanTemplate template;
+    private final int rowCount;
+    private final Object[] columns;
+    private final List<List<String>> dictionaries;
+
+    private ColumnarInput(ScanTemplate template, int rowCount, Object[] columns, List<List<String>> dictionaries) {
+        this.template = template;
+        this.rowCount = rowCount;
+        this.columns = columns;
+        this.dictionaries = dictionaries;
+    }
+
+    /**
+     * Parses the given input file according to the given pattern, storing "%d" values as {@code int} values.
+     *
+     * @throws IllegalArgumentException if a non-empty line does not match the pattern or a "%s" column has too
+     *         many distinct words
+     */
+    public static ColumnarInput parse(Path path, String pattern) {
+        return parse(InputUtils.readString(path), ScanTemplate.compile(pattern), false);
+    }
+
+    /**
+     * Parses the given input file according to the given pattern, storing "%d" values as {@code long} values.
+     *
+     * @throws IllegalArgumentException if a non-empty line does not match the pattern or a "%s" column has too
+     *         many distinct words
+     */
+    public static ColumnarInput parseLongs(Path path, String pattern) {
+        return parse(InputUtils.readString(path), ScanTemplate.compile(pattern), true);
+    }
+
+    /**
+     * Parses the given text, which can be split into lines by LF characters.
+     */
+    static ColumnarInput parse(String text, ScanTemplate template, boolean longs) {
+        int chunkCount = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4,
+                text.length() / MIN_CHUNK_SIZE));
+        var bounds = new int[chunkCount + 1];
+        for (int k = 1; k < chunkCount; k++) {
+            int pos = (int) ((long) k * text.length() / chunkCount);
+            int newline = text.indexOf('\n', Math.max(pos, bounds[k - 1]));
+            bounds[k] = newline < 0 ? text.length() : newline + 1;
+        }
+        bounds[chunkCount] = text.length();
+
+        var chunks = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(k -> new Chunk(text, bounds[k], bounds[k + 1], template, longs))
+                .toList();
+        return chunks.size() == 1 ? chunks.get(0).toInput(template) : merge(chunks, template);
+    }
+
+    /**
+     * Returns the template used for parsing the records.
+     */
+    public ScanTemplate template() {
+        return template;
+    }
+
+    /**
+     * Returns the number of records (non-empty lines).
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the values of the given "%d" column parsed by {@link #parse(Path, String)}.
+     */
+    public int[] ints(int column) {
+        return (int[]) column(column, int[].class);
+    }
+
+    /**
+     * Returns the values of the given "%d" column parsed by {@link #parseLongs(Path, String)}.
+     */
+    public long[] longs(int column) {
+        return (long[]) column(column, long[].class);
+    }
+
+    /**
+     * Returns the values of the given "%c" column.
+     */
+    public char[] chars(int column) {
+        return (char[]) column(column, char[].class);
+    }
+
+    /**
+     * Returns the codes of the words of the given "%s" column, which are (unsigned) indices into the
+     * {@link #dictionary(int) dictionary} of the column.
+     */
+    public byte[] codes(int column) {
+        return (byte[]) column(column, byte[].class);
+    }
+
+    /**
+     * Returns the distinct words of the given "%s" column in the order of their first occurrence.
+     */
+    public List<String> dictionary(int column) {
+        column(column, byte[].class);
+        return dictionaries.get(column);
+    }
+
+    /**
+     * Returns the word of the given "%s" column in the given row.
+     */
+    public String word(int column, int row) {
+        return dictionary(column).get(codes(column)[row] & 0xFF);
+    }
+
+    private Object column(int column, Class<?> type) {
+        if (column < 0 || column >= columns.length || columns[column].getClass() != type) {
+            throw new IllegalArgumentException("Column " + column + " of pattern '" + template.pattern()
+                    + "' is not of type " + type.getSimpleName() + ".");
+        }
+        return columns[column];
+    }
+
+    private static ColumnarInput merge(List<Chunk> chunks, ScanTemplate template) {
+        int rowCount = chunks.stream().mapToInt(chunk -> chunk.rowCount).sum();
+        var first = chunks.get(0);
+        var columns = new Object[template.valueCount()];
+        var dictionaries = new ArrayList<List<String>>();
+        for (int c = 0; c < columns.length; c++) {
+            if (first.words.get(c) == null) {
+                columns[c] = Array.newInstance(first.columns[c].getClass().componentType(), rowCount);
+                int offset = 0;
+                for (var chunk : chunks) {
+                    System.arraycopy(chunk.columns[c], 0, columns[c], offset, chunk.rowCount);
+                    offset += chunk.rowCount;
+                }
+                dictionaries.add(null);
+            } else {
+                // Merge the dictionaries of the chunks and re-encode the words accordingly
+                var codes = new byte[rowCount];
+                var indices = new LinkedHashMap<String, Integer>();
+                int offset = 0;
+                for (var chunk : chunks) {
+                    var words = chunk.words.get(c);
+                    var recode = new byte[words.size()];
+                    for (int k = 0; k < words.size(); k++) {
+                        recode[k] = (byte) (int) indices.computeIfAbsent(words.get(k), w -> indices.size());
+                    }
+                    checkDictionarySize(indices.size(), c);
+                    byte[] chunkCodes = (byte[]) chunk.columns[c];
+                    for (int i = 0; i < chunk.rowCount; i++) {
+                        codes[offset + i] = recode[chunkCodes[i] & 0xFF];
+                    }
+                    offset += chunk.rowCount;
+                }
+                columns[c] = codes;
+                dictionaries.add(List.copyOf(indices.keySet()));
+            }
+        }
+        return new ColumnarInput(template, rowCount, columns, dictionaries);
+    }
+
+    private static void checkDictionarySize(int size, int column) {
+        if (size > MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Column " + column + " has more than " + MAX_DICTIONARY_SIZE
+                    + " distinct words.");
+        }
+    }
+
+    /**
+     * The columns parsed from a chunk of the input.
+     */
+    private static final class Chunk {
+
+        final int rowCount;
+        final Object[] columns;
+        final List<List<String>> words = new ArrayList<>();
+
+        Chunk(String text, int start, int end, ScanTemplate template, boolean longs) {
+            rowCount = countLines(text, start, end);
+            columns = new Object[template.valueCount()];
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = switch (template.valueType(c)) {
+                    case 'd' -> longs ? new long[rowCount] : new int[rowCount];
+                    case 'c' -> new char[rowCount];
+                    default -> new byte[rowCount];
+                };
+                words.add(template.valueType(c) == 's' ? new ArrayList<>() : null);
+            }
+
+            var result = template.newResult();
+            int row = 0;
+            for (int from = start; from < end; ) {
+                int to = text.indexOf('\n', from, end);
+                if (to < 0) {
+                    to = end;
+                }
+                if (to > from) {
+                    if (!result.tryMatch(text, from, to)) {
+                        throw new IllegalArgumentException(String.format(
+                                "Input line '%s' does not match the pattern '%s'.",
+                                text.substring(from, to), template.pattern()));
+                    }
+                    for (int c = 0; c < columns.length; c++) {
+                        switch (template.valueType(c)) {
+                            case 'd' -> {
+                                if (longs) {
+                                    ((long[]) columns[c])[row] = result.getLong(c);
+                                } else {
+                                    ((int[]) columns[c])[row] = result.getInt(c);
+                                }
+                            }
+                            case 'c' -> ((char[]) columns[c])[row] = result.getChar(c);
+                            default -> ((byte[]) columns[c])[row] = encode(words.get(c), text, result.start(c),
+                                    result.end(c), c);
+                        }
+                    }
+                    row++;
+                }
+                from = to + 1;
+            }
+        }
+
+        ColumnarInput toInput(ScanTemplate template) {
+            return new ColumnarInput(template, rowCount, columns,
+                    words.stream().map(w -> w == null ? null : List.copyOf(w)).toList());
+        }
+
+        private static int countLines(String text, int start, int end) {
+            int count = 0;
+            for (int from = start; from < end; ) {
+                int to = text.indexOf('\n', from, end);
+                if (to < 0) {
+                    to = end;
+                }
+                if (to > from) {
+                    count++;
+                }
+                from = to + 1;
+            }
+            return count;
+        }
+
+        /**
+         * Returns the code of the given word, adding it to the dictionary if necessary. Only new words are
+         * converted to strings.
+         */
+        private static byte encode(List<String> dictionary, String text, int start, int end, int column) {
+            int length = end - start;
+            for (int k = 0; k < dictionary.size(); k++) {
+                var word = dictionary.get(k);
+                if (word.length() == length && text.regionMatches(start, word, 0, length)) {
+                    return (byte) k;
+                }
+            }
+            dictionary.add(text.substring(start, end));
+            checkDictionarySize(dictionary.size(), column);
+            return (byte) (dictionary.size() - 1);
+        }
+
+    }
+
+}
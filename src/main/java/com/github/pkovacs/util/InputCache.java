@@ -0,0 +1,221 @@
+package com.github.pkovacs.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An in-memory cache of decoded text files. It is useful when the same input files are read many times in the same
+ * JVM, e.g., when many solutions are executed by a harness. The cache is opt-in: {@link InputUtils#readLines(Path)}
+ * and {@link InputUtils#readString(Path)} only use it if it is {@link #setEnabled(boolean) enabled}.
+ * <p>
+ * The cache is checked against the last modification time and the size of the file on each access, so a modified
+ * file is always read again. The cache is bounded: the least recently used files are evicted when the total size
+ * of the cached files exceeds {@link #MAX_TOTAL_SIZE} bytes or the number of files exceeds {@link #MAX_ENTRIES}.
+ * Files larger than {@link #MAX_TOTAL_SIZE} bytes are never cached.
+ * <p>
+ * Files can also be loaded asynchronously in advance by {@link #prefetch(Collection)}, so that reading them later
+ * does not block (or blocks only until the load in progress completes). Each file is read only once, even if it is
+ * requested by multiple threads concurrently.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class InputCache {
+
+    /** The maximum number of cached files. */
+    public static final int MAX_ENTRIES = 1024;
+
+    /** The maximum total size of the cached files in bytes. */
+    public static final long MAX_TOTAL_SIZE = 64L << 20;
+
+    private static final LinkedHashMap<Path, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private static long totalSize;
+
+    private static final ExecutorService loader = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static volatile boolean enabled;
+
+    private InputCache() {
+    }
+
+    /**
+     * Enables or disables the use of this cache by {@link InputUtils}. Disabling the cache also clears it.
+     * The cache is disabled by default.
+     */
+    public static void setEnabled(boolean enabled) {
+        InputCache.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this cache is used by {@link InputUtils}.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the lines of the given text file as an unmodifiable list. Line separators are recognized as in
+     * {@link String#lines()}.
+     */
+    public static List<String> readLines(Path path) {
+        return get(path, false).lines();
+    }
+
+    /**
+     * Returns the contents of the given text file. Line separators are converted to UNIX/Mac style (LF).
+     */
+    public static String readString(Path path) {
+        return get(path, false).text;
+    }
+
+    /**
+     * Starts loading the given files asynchronously on virtual threads. The files that are already cached (and not
+     * modified) are skipped.
+     */
+    public static void prefetch(Collection<Path> paths) {
+        for (var path : paths) {
+            if (Files.isRegularFile(path)) {
+                get(path, true);
+            }
+        }
+    }
+
+    /**
+     * Removes all files from the cache.
+     */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+            totalSize = 0;
+        }
+    }
+
+    private static Content get(Path path, boolean async) {
+        var key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        if (attributes.size() > MAX_TOTAL_SIZE) {
+            // Too large to be cached: read it directly (and do not prefetch it)
+            if (async) {
+                return null;
+            }
+            try {
+                return read(key);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        Entry entry;
+        boolean load = false;
+        synchronized (cache) {
+            entry = cache.get(key);
+            if (entry == null || !entry.isValid(attributes)) {
+                remove(key);
+                entry = new Entry(attributes.lastModifiedTime(), attributes.size(), new CompletableFuture<>());
+                cache.put(key, entry);
+                totalSize += entry.size;
+                evict();
+                load = true;
+            }
+        }
+
+        if (load) {
+            var content = entry.content;
+            if (async) {
+                loader.execute(() -> load(key, content));
+            } else {
+                load(key, content);
+            }
+        }
+        if (async) {
+            return null;
+        }
+
+        try {
+            return entry.content.join();
+        } catch (CompletionException e) {
+            synchronized (cache) {
+                if (cache.get(key) == entry) {
+                    remove(key);
+                }
+            }
+            throw new IllegalArgumentException(e.getCause());
+        }
+    }
+
+    private static void load(Path path, CompletableFuture<Content> content) {
+        try {
+            content.complete(read(path));
+        } catch (IOException | RuntimeException e) {
+            content.completeExceptionally(e);
+        }
+    }
+
+    private static Content read(Path path) throws IOException {
+        return new Content(InputUtils.normalizeLineSeparators(Files.readString(path, StandardCharsets.UTF_8)));
+    }
+
+    private static void remove(Path key) {
+        var old = cache.remove(key);
+        if (old != null) {
+            totalSize -= old.size;
+        }
+    }
+
+    private static void evict() {
+        var it = cache.values().iterator();
+        while ((totalSize > MAX_TOTAL_SIZE || cache.size() > MAX_ENTRIES) && cache.size() > 1) {
+            totalSize -= it.next().size;
+            it.remove();
+        }
+    }
+
+    private record Entry(FileTime modified, long size, CompletableFuture<Content> content) {
+
+        boolean isValid(BasicFileAttributes attributes) {
+            return modified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+
+    }
+
+    private static final class Content {
+
+        final String text;
+        private volatile List<String> lines;
+
+        Content(String text) {
+            this.text = text;
+        }
+
+        List<String> lines() {
+            var result = lines;
+            if (result == null) {
+                // Lazy load: split the text only if the lines are requested
+                result = text.lines().toList();
+                lines = result;
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -1,14 +1,24 @@
 package com.github.pkovacs.util;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.pkovacs.util.data.CharGrid;
 
 /**
  * Provides simple utility methods for processing strings and text files.
@@ -16,7 +26,8 @@ import java.util.regex.Pattern;
  */
 public final class InputUtils {
 
-    private static final Pattern decimalPattern = Pattern.compile("-?\\d+");
+    private static final int MAX_CACHED_SCAN_TEMPLATES = 256;
+    private static final Map<String, ScanTemplate> scanTemplates = new ConcurrentHashMap<>();
 
     private InputUtils() {
     }
@@ -39,9 +50,13 @@ public final class InputUtils {
     }
 
     /**
-     * Reads all lines from the given input file.
+     * Reads all lines from the given input file. If {@link InputCache} is enabled, the file is read through it,
+     * but a new (modifiable) list is returned in either case.
      */
     public static List<String> readLines(Path path) {
+        if (InputCache.isEnabled()) {
+            return new ArrayList<>(InputCache.readLines(path));
+        }
         try {
             return Files.readAllLines(path, StandardCharsets.UTF_8);
         } catch (IOException e) {
@@ -58,19 +73,41 @@ public final class InputUtils {
 
     /**
      * Reads the given text file into a string. Line separators are converted to UNIX/Mac style (LF).
+     * If {@link InputCache} is enabled, the file is read through it.
      */
     public static String readString(Path path) {
+        if (InputCache.isEnabled()) {
+            return InputCache.readString(path);
+        }
         try {
-            return Files.readString(path, StandardCharsets.UTF_8)
-                    .replaceAll("\r\n", "\n")
-                    .replaceAll("\r", "\n");
+            return normalizeLineSeparators(Files.readString(path, StandardCharsets.UTF_8));
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
     }
 
+    /**
+     * Converts CRLF and CR line separators to LF in a single pass. The text is not copied if it contains no CR.
+     */
+    static String normalizeLineSeparators(String text) {
+        int cr = text.indexOf('\r');
+        if (cr < 0) {
+            return text;
+        }
+        var sb = new StringBuilder(text.length());
+        int from = 0;
+        while (cr >= 0) {
+            sb.append(text, from, cr).append('\n');
+            from = cr + 1 < text.length() && text.charAt(cr + 1) == '\n' ? cr + 2 : cr + 1;
+            cr = text.indexOf('\r', from);
+        }
+        return sb.append(text, from, text.length()).toString();
+    }
+
     /**
      * Reads the lines of the given input file as a char matrix.
+     * <p>
+     * For large inputs, consider {@link #readCharGrid(Path)}, which stores the characters more compactly.
      */
     public static char[][] readCharMatrix(Path path) {
         var lines = readLines(path);
@@ -84,18 +121,75 @@ public final class InputUtils {
         return matrix;
     }
 
+    /**
+     * Reads the lines of the given input file as a {@link CharGrid}, which is backed by the bytes of the file
+     * (without decoding or copying the lines).
+     */
+    public static CharGrid readCharGrid(Path path) {
+        return CharGrid.read(path);
+    }
+
+    /**
+     * Reads all integers from the given input file and returns them as an {@code int} array.
+     * All other characters (including line separators) are simply ignored.
+     * <p>
+     * This is equivalent to {@code parseInts(readString(path))}, so the numbers of the whole file are parsed
+     * without splitting it into lines.
+     */
+    public static int[] readInts(Path path) {
+        return parseInts(readString(path));
+    }
+
+    /**
+     * Reads all integers from the given input file and returns them as a {@code long} array.
+     * All other characters (including line separators) are simply ignored.
+     */
+    public static long[] readLongs(Path path) {
+        return parseLongs(readString(path));
+    }
+
     /**
      * Parses all integers from the given string and returns them as an {@code int} array.
      * All other characters are simply ignored.
      * <p>
      * For example, parsing {@code "I have 5 apples and 12 bananas."} will result in {@code {5, 12}}.
+     *
+     * @throws NumberFormatException if a number is out of the range of {@code int}
      */
-    public static int[] parseInts(String input) {
-        return decimalPattern.matcher(input)
-                .results()
-                .map(MatchResult::group)
-                .mapToInt(Integer::parseInt)
-                .toArray();
+    public static int[] parseInts(CharSequence input) {
+        var values = new int[16];
+        int count = 0;
+        int n = input.length();
+        for (int i = findNumber(input, 0, n); i < n; ) {
+            int end = skipNumber(input, i, n);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = Integer.parseInt(input, i, end, 10);
+            i = findNumber(input, end, n);
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Parses all integers from the given string into the given buffer without allocating memory. Returns the
+     * number of integers in the input, which may be greater than the length of the buffer: in this case, only
+     * the first {@code buffer.length} values are stored.
+     *
+     * @throws NumberFormatException if a number is out of the range of {@code int}
+     */
+    public static int parseInts(CharSequence input, int[] buffer) {
+        int count = 0;
+        int n = input.length();
+        for (int i = findNumber(input, 0, n); i < n; ) {
+            int end = skipNumber(input, i, n);
+            if (count < buffer.length) {
+                buffer[count] = Integer.parseInt(input, i, end, 10);
+            }
+            count++;
+            i = findNumber(input, end, n);
+        }
+        return count;
     }
 
     /**
@@ -103,24 +197,135 @@ public final class InputUtils {
      * All other characters are simply ignored.
      * <p>
      * For example, parsing {@code "I have 5 apples and 12 bananas."} will result in {@code {5, 12}}.
+     *
+     * @throws NumberFormatException if a number is out of the range of {@code long}
+     */
+    public static long[] parseLongs(CharSequence input) {
+        var values = new long[16];
+        int count = 0;
+        int n = input.length();
+        for (int i = findNumber(input, 0, n); i < n; ) {
+            int end = skipNumber(input, i, n);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = Long.parseLong(input, i, end, 10);
+            i = findNumber(input, end, n);
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Parses all integers from the given string into the given buffer without allocating memory. Returns the
+     * number of integers in the input, which may be greater than the length of the buffer: in this case, only
+     * the first {@code buffer.length} values are stored.
+     *
+     * @throws NumberFormatException if a number is out of the range of {@code long}
+     */
+    public static int parseLongs(CharSequence input, long[] buffer) {
+        int count = 0;
+        int n = input.length();
+        for (int i = findNumber(input, 0, n); i < n; ) {
+            int end = skipNumber(input, i, n);
+            if (count < buffer.length) {
+                buffer[count] = Long.parseLong(input, i, end, 10);
+            }
+            count++;
+            i = findNumber(input, end, n);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the start index of the first number (a digit or a minus sign followed by a digit) at or after
+     * {@code from}, or {@code to} if there is no more number.
+     */
+    private static int findNumber(CharSequence input, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char ch = input.charAt(i);
+            if (isDigit(ch) || (ch == '-' && i + 1 < to && isDigit(input.charAt(i + 1)))) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Returns the end index (exclusive) of the number starting at {@code start}.
      */
-    public static long[] parseLongs(String input) {
-        return decimalPattern.matcher(input)
-                .results()
-                .map(MatchResult::group)
-                .mapToLong(Long::parseLong)
-                .toArray();
+    private static int skipNumber(CharSequence input, int start, int to) {
+        int i = start + 1;
+        while (i < to && isDigit(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
     }
 
     /**
      * Collects blocks of lines (separated by blank line(s)) from the given string.
      */
     public static List<List<String>> collectLineBlocks(String input) {
-        return Arrays.stream(input.split("\r?\n(\r?\n)+"))
-                .map(block -> List.of(block.split("\r?\n")))
+        return lineBlocks(new BufferedReader(new StringReader(input)))
+                .map(block -> block.stream().map(CharSequence::toString).toList())
                 .toList();
     }
 
+    /**
+     * Returns a lazy stream of the blocks of lines (separated by blank line(s)) of the given input file.
+     * <p>
+     * Unlike {@link #readString(Path)} and {@link #collectLineBlocks(String)}, the file is read sequentially while
+     * the stream is consumed, and it is not cached, so only the current block is kept in memory. Therefore, this
+     * method is suitable for inputs larger than the available heap. LF, CRLF, and CR line separators are all
+     * recognized while reading. Leading and repeated blank lines do not produce empty blocks.
+     * <p>
+     * The returned stream should be closed (e.g. by a try-with-resources statement) to close the file.
+     */
+    public static Stream<List<CharSequence>> streamLineBlocks(Path path) {
+        try {
+            return lineBlocks(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static Stream<List<CharSequence>> lineBlocks(BufferedReader reader) {
+        var spliterator = new Spliterators.AbstractSpliterator<List<CharSequence>>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super List<CharSequence>> action) {
+                var block = new ArrayList<CharSequence>();
+                try {
+                    // BufferedReader normalizes the line separators in the same pass as it reads the lines
+                    for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                        if (!line.isEmpty()) {
+                            block.add(line);
+                        } else if (!block.isEmpty()) {
+                            break;
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new IllegalArgumentException(e);
+                }
+                if (block.isEmpty()) {
+                    return false;
+                }
+                action.accept(Collections.unmodifiableList(block));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        });
+    }
+
     /**
      * Scans the given input string according to the given pattern (similarly to scanf method in C) and
      * returns the parsed values.
@@ -128,6 +333,9 @@ public final class InputUtils {
      * The given pattern may contain "%d", "%c", "%s". Otherwise, it is considered as a RegEx, so be aware
      * of escaping special characters like '(', ')', '[', ']', '.', '*', '?' etc.
      * The returned list contains the parsed values in the order of their occurrence as {@link ParsedValue}s.
+     * <p>
+     * The patterns are compiled into {@link ScanTemplate} objects, which are cached. For parsing many lines,
+     * consider using a {@link ScanTemplate} directly, which avoids creating the {@link ParsedValue} objects.
      *
      * @param str input string
      * @param pattern pattern string: a RegEx that may contain "%d", "%c", "%s", but must not contain capturing
@@ -135,37 +343,24 @@ public final class InputUtils {
      * @return the list of {@link ParsedValue} objects, which can be obtained as int, long, char, or String
      */
     public static List<ParsedValue> scan(String str, String pattern) throws IllegalArgumentException {
-        var groupFinder = Pattern.compile("%.").matcher(pattern);
-        var groupPatterns = new ArrayList<String>();
-        while (groupFinder.find()) {
-            groupPatterns.add(groupFinder.group());
-        }
-
-        var regex = pattern.replaceAll("%d", "(\\\\d+)")
-                .replaceAll("%c", "(.)")
-                .replaceAll("%s", "(.*)");
-
-        var result = new ArrayList<ParsedValue>();
-        var matcher = Pattern.compile(regex).matcher(str);
-        if (matcher.matches()) {
-            if (matcher.groupCount() == groupPatterns.size()) {
-                for (int i = 0; i < groupPatterns.size(); i++) {
-                    var groupPattern = groupPatterns.get(i);
-                    var group = matcher.group(i + 1); // 0-th group is the entire match
-                    result.add(ParsedValue.parse(group, groupPattern));
-                }
-            } else {
-                throw new IllegalArgumentException(String.format(
-                        "Input string '%s' has %d groups instead of expected %d for RegEx '%s'"
-                                + " (created from pattern '%s').",
-                        str, matcher.groupCount(), groupPatterns.size(), regex, pattern));
+        var template = scanTemplates.get(pattern);
+        if (template == null) {
+            if (scanTemplates.size() >= MAX_CACHED_SCAN_TEMPLATES) {
+                scanTemplates.clear();
             }
-        } else {
-            throw new IllegalArgumentException(String.format(
-                    "Input string '%s' does not match the RegEx '%s' (created from pattern '%s').",
-                    str, regex, pattern));
+            template = ScanTemplate.compile(pattern);
+            scanTemplates.put(pattern, template);
         }
 
+        var match = template.match(str);
+        var result = new ArrayList<ParsedValue>(template.valueCount());
+        for (int i = 0; i < template.valueCount(); i++) {
+            result.add(switch (template.valueType(i)) {
+                case 'd' -> new ParsedValue(match.getLong(i));
+                case 'c' -> new ParsedValue(match.getChar(i));
+                default -> new ParsedValue(match.getString(i));
+            });
+        }
         return result;
     }
 
@@ -180,14 +375,6 @@ public final class InputUtils {
             this.value = value;
         }
 
-        private static ParsedValue parse(String s, String pattern) {
-            return switch (pattern) {
-                case "%d" -> new ParsedValue(Long.parseLong(s));
-                case "%c" -> new ParsedValue(s.charAt(0));
-                default -> new ParsedValue(s);
-            };
-        }
-
         public int asInt() {
             return (int) (long) value;
         }
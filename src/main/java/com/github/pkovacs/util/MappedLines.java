@@ -0,0 +1,218 @@
+package com.github.pkovacs.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Provides the lines of large text files as a stream of {@link CharSequence} views over the memory-mapped file.
+ * <p>
+ * Unlike {@link InputUtils#readLines(Path)}, the file is neither decoded nor split into {@code String} objects in
+ * advance: each line is a lightweight view of the mapped bytes, and the operating system loads the pages of the file
+ * on demand. Therefore, even multi-gigabyte files can be processed with (almost) constant heap usage, as long as the
+ * lines are not collected. The stream can be made {@link Stream#parallel() parallel}, as it is split at line
+ * boundaries.
+ * <p>
+ * The file must be ASCII-encoded (other bytes are interpreted as ISO-8859-1 characters). Both LF and CRLF line
+ * separators are supported. The lines can be converted to strings by {@link CharSequence#toString()}, but the views
+ * themselves remain valid after the stream is closed, too. The file is unmapped by the garbage collector when no
+ * views refer to it anymore.
+ */
+public final class MappedLines {
+
+    /** The maximum number of bytes mapped into a single buffer, which is also the maximum length of a line. */
+    static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    private MappedLines() {
+    }
+
+    /**
+     * Returns a sequential stream of the lines of the given file. The stream can be turned into a parallel one
+     * by calling {@link Stream#parallel()}.
+     */
+    public static Stream<CharSequence> lines(Path path) {
+        return lines(path, MAX_SEGMENT_SIZE);
+    }
+
+    static Stream<CharSequence> lines(Path path, int maxSegmentSize) {
+        var segments = new ArrayList<ByteBuffer>();
+        var starts = new ArrayList<Long>();
+        long size;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            for (long pos = 0; pos < size; ) {
+                int length = (int) Math.min(maxSegmentSize, size - pos);
+                var segment = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+                if (pos + length < size) {
+                    // Cut the segment after its last line separator, so that lines never cross segments
+                    int i = length - 1;
+                    while (i >= 0 && segment.get(i) != '\n') {
+                        i--;
+                    }
+                    if (i < 0) {
+                        throw new IllegalArgumentException("Line at position " + pos + " is longer than "
+                                + maxSegmentSize + " bytes in file: " + path + ".");
+                    }
+                    length = i + 1;
+                    segment.limit(length);
+                }
+                segments.add(segment);
+                starts.add(pos);
+                pos += length;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to map file: " + path + ".", e);
+        }
+
+        var spliterator = new LineSpliterator(segments.toArray(ByteBuffer[]::new),
+                starts.stream().mapToLong(Long::longValue).toArray(), 0, size);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * A spliterator of the lines between two line start positions of the file. It is split at segment boundaries
+     * first, and then at the line separator nearest to the middle of the range.
+     */
+    private static final class LineSpliterator implements Spliterator<CharSequence> {
+
+        private static final int MIN_SPLIT_SIZE = 1 << 12;
+
+        private final ByteBuffer[] segments;
+        private final long[] starts;
+        private long pos;
+        private final long end;
+        private int segment;
+
+        LineSpliterator(ByteBuffer[] segments, long[] starts, long pos, long end) {
+            this.segments = segments;
+            this.starts = starts;
+            this.pos = pos;
+            this.end = end;
+            this.segment = pos < end ? segmentOf(pos) : 0;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super CharSequence> action) {
+            if (pos >= end) {
+                return false;
+            }
+            var buffer = segments[segment];
+            int from = (int) (pos - starts[segment]);
+            int limit = buffer.limit();
+            int i = from;
+            while (i < limit && buffer.get(i) != '\n') {
+                i++;
+            }
+            int to = i > from && buffer.get(i - 1) == '\r' ? i - 1 : i;
+            action.accept(new LineView(buffer, from, to - from));
+
+            if (i + 1 < limit) {
+                pos = starts[segment] + i + 1;
+            } else {
+                pos = starts[segment] + limit;
+                if (segment + 1 < segments.length) {
+                    segment++;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Spliterator<CharSequence> trySplit() {
+            if (end - pos < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            int lastSegment = segmentOf(end - 1);
+            long mid;
+            if (segment < lastSegment) {
+                mid = starts[(segment + lastSegment + 1) / 2];
+            } else {
+                var buffer = segments[segment];
+                int i = (int) ((pos + end) / 2 - starts[segment]);
+                while (i < buffer.limit() && buffer.get(i) != '\n') {
+                    i++;
+                }
+                mid = starts[segment] + i + 1;
+            }
+            if (mid <= pos || mid >= end) {
+                return null;
+            }
+            var prefix = new LineSpliterator(segments, starts, pos, mid);
+            pos = mid;
+            segment = segmentOf(mid);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            // The number of bytes is an upper bound of the number of lines
+            return end - pos;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+        private int segmentOf(long position) {
+            int index = Arrays.binarySearch(starts, position);
+            return index >= 0 ? index : -index - 2;
+        }
+
+    }
+
+    /**
+     * A read-only view of a line of an ASCII file.
+     */
+    private static final class LineView implements CharSequence {
+
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+
+        LineView(ByteBuffer buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+            }
+            return new LineView(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            var bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
+    }
+
+}
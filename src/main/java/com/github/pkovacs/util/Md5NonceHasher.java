@@ -0,0 +1,335 @@
+package com.github.pkovacs.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Computes MD5 hashes of messages consisting of a fixed prefix followed by a decimal counter (nonce), e.g.
+ * {@code "abcdef1"}, {@code "abcdef2"}, etc. This is a typical task in puzzles that search for the first nonce
+ * whose hash has a certain property, for example, it starts with five zeros in hexadecimal representation.
+ * <p>
+ * The hasher is designed to be fast for this special use case: it creates no objects per candidate. The counter
+ * digits are incremented in place within a reusable message buffer, the MD5 state after the complete 64-byte blocks
+ * of the prefix is computed only once, and the first steps of the last block that only depend on the prefix are
+ * also cached. Furthermore, {@link #firstWord()} only computes the first word of the hash, which is sufficient to
+ * check up to eight leading hexadecimal digits (see {@link #leadingZeroMask(int)}).
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public final class Md5NonceHasher {
+
+    static final int[] K = new int[64];
+    static final int[] S = {
+            7, 12, 17, 22, 7, 12, 17, 22, 7, 12, 17, 22, 7, 12, 17, 22,
+            5, 9, 14, 20, 5, 9, 14, 20, 5, 9, 14, 20, 5, 9, 14, 20,
+            4, 11, 16, 23, 4, 11, 16, 23, 4, 11, 16, 23, 4, 11, 16, 23,
+            6, 10, 15, 21, 6, 10, 15, 21, 6, 10, 15, 21, 6, 10, 15, 21 };
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            K[i] = (int) (long) Math.floor(Math.abs(Math.sin(i + 1)) * (1L << 32));
+        }
+    }
+
+    static final int MAX_DIGITS = 19;
+
+    /** MD5 state after processing the complete 64-byte blocks of the prefix. */
+    private final int[] prefixState = { 0x67452301, 0xefcdab89, 0x98badcfe, 0x10325476 };
+
+    /** Total number of prefix bytes processed into {@link #prefixState}. */
+    private final long prefixBlockBytes;
+
+    /** The remaining part of the message: prefix tail, counter digits, and padding (at most two blocks). */
+    private final byte[] buffer = new byte[128];
+    private final int[] words = new int[32];
+    private final int tailLength;
+    private final int[] scratchState = new int[4];
+
+    /**
+     * The number of words at the beginning of the first remaining block that only contain prefix bytes, and the
+     * MD5 registers after the corresponding first steps of the compression function.
+     */
+    private int cachedSteps;
+    private int cachedA, cachedB, cachedC, cachedD;
+
+    private int digitCount;
+    private int blockCount;
+    private long nonce;
+
+    /**
+     * Creates a new hasher for the given prefix (encoded as UTF-8) and initial nonce.
+     *
+     * @throws IllegalArgumentException if the initial nonce is negative
+     */
+    public Md5NonceHasher(String prefix, long nonce) {
+        if (nonce < 0) {
+            throw new IllegalArgumentException("Negative nonce: " + nonce + ".");
+        }
+
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        int fullBlocks = bytes.length / 64;
+        int[] x = new int[16];
+        for (int block = 0; block < fullBlocks; block++) {
+            for (int j = 0; j < 16; j++) {
+                x[j] = getWord(bytes, block * 64 + j * 4);
+            }
+            compress(prefixState, x, 0, 0, prefixState[0], prefixState[1], prefixState[2], prefixState[3]);
+        }
+        prefixBlockBytes = fullBlocks * 64L;
+        tailLength = bytes.length - fullBlocks * 64;
+        System.arraycopy(bytes, fullBlocks * 64, buffer, 0, tailLength);
+
+        setNonce(nonce);
+    }
+
+    /**
+     * Returns the current nonce.
+     */
+    public long nonce() {
+        return nonce;
+    }
+
+    /**
+     * Sets the current nonce.
+     *
+     * @throws IllegalArgumentException if the nonce is negative
+     */
+    public void setNonce(long nonce) {
+        if (nonce < 0) {
+            throw new IllegalArgumentException("Negative nonce: " + nonce + ".");
+        }
+        this.nonce = nonce;
+        var digits = Long.toString(nonce);
+        digitCount = digits.length();
+        for (int i = 0; i < digitCount; i++) {
+            buffer[tailLength + i] = (byte) digits.charAt(i);
+        }
+        updateLayout();
+    }
+
+    /**
+     * Increments the nonce by one, updating the message buffer in place.
+     */
+    public void next() {
+        nonce++;
+        int i = tailLength + digitCount - 1;
+        while (i >= tailLength && buffer[i] == '9') {
+            buffer[i--] = '0';
+        }
+        if (i >= tailLength) {
+            buffer[i]++;
+            updateDigitWords(i);
+        } else {
+            // All digits were '9': the counter gets one digit longer
+            if (digitCount == MAX_DIGITS) {
+                throw new ArithmeticException("Nonce overflow.");
+            }
+            buffer[tailLength] = '1';
+            buffer[tailLength + digitCount] = '0';
+            digitCount++;
+            updateLayout();
+        }
+    }
+
+    /**
+     * Returns the first word of the MD5 hash of the current message as an {@code int} value in little-endian
+     * order, that is, the lowest byte of the result is the first byte of the hash.
+     */
+    public int firstWord() {
+        if (blockCount == 1) {
+            return prefixState[0] + compressFirstWord(words, 0, cachedSteps, cachedA, cachedB, cachedC, cachedD);
+        } else {
+            int[] state = scratchState;
+            System.arraycopy(prefixState, 0, state, 0, 4);
+            compress(state, words, 0, cachedSteps, cachedA, cachedB, cachedC, cachedD);
+            return state[0] + compressFirstWord(words, 16, 0, state[0], state[1], state[2], state[3]);
+        }
+    }
+
+    /**
+     * Returns true if the MD5 hash of the current message starts with (at least) the given number of zero digits
+     * in hexadecimal representation.
+     *
+     * @param zeros the required number of zero digits, between 0 and 8 (inclusive)
+     */
+    public boolean hasLeadingZeros(int zeros) {
+        int mask = leadingZeroMask(zeros);
+        return (firstWord() & mask) == 0;
+    }
+
+    /**
+     * Returns the bit mask that selects the first {@code zeros} hexadecimal digits of the hash in the value
+     * returned by {@link #firstWord()}. That is, the hash starts with {@code zeros} zero digits if and only if
+     * {@code (firstWord() & leadingZeroMask(zeros)) == 0}.
+     *
+     * @param zeros the number of digits, between 0 and 8 (inclusive)
+     */
+    public static int leadingZeroMask(int zeros) {
+        if (zeros < 0 || zeros > 8) {
+            throw new IllegalArgumentException("Invalid number of zero digits: " + zeros + ".");
+        }
+        int mask = 0;
+        for (int i = 0; i < zeros; i++) {
+            // Each byte is written as two hex digits: the high nibble comes first
+            mask |= (i % 2 == 0 ? 0xF0 : 0x0F) << (8 * (i / 2));
+        }
+        return mask;
+    }
+
+    /**
+     * Returns true if {@link Md5NonceVectorHasher} can be used for the given prefix. It requires the Vector API,
+     * that is, the module {@code jdk.incubator.vector} has to be present in the boot layer. Furthermore, the tail of
+     * the prefix after its complete 64-byte blocks has to leave enough space for any nonce and the padding in a
+     * single block.
+     */
+    public static boolean isVectorHasherSupported(String prefix) {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && fitsSingleBlock(prefix);
+    }
+
+    static boolean fitsSingleBlock(String prefix) {
+        return prefix.getBytes(StandardCharsets.UTF_8).length % 64 + MAX_DIGITS + 9 <= 64;
+    }
+
+    /**
+     * Returns the MD5 state after the complete 64-byte blocks of the prefix.
+     */
+    int[] prefixState() {
+        return prefixState.clone();
+    }
+
+    /**
+     * Returns the number of cached steps of the compression function for the first remaining block.
+     */
+    int cachedSteps() {
+        return cachedSteps;
+    }
+
+    /**
+     * Returns the MD5 registers after the {@link #cachedSteps() cached steps}.
+     */
+    int[] cachedRegisters() {
+        return new int[] { cachedA, cachedB, cachedC, cachedD };
+    }
+
+    private void updateLayout() {
+        int length = tailLength + digitCount;
+        blockCount = length + 9 <= 64 ? 1 : 2;
+        int end = blockCount * 64;
+        buffer[length] = (byte) 0x80;
+        for (int i = length + 1; i < end - 8; i++) {
+            buffer[i] = 0;
+        }
+        long bitLength = (prefixBlockBytes + length) * 8;
+        for (int i = 0; i < 8; i++) {
+            buffer[end - 8 + i] = (byte) (bitLength >>> (8 * i));
+        }
+        for (int j = 0; j < blockCount * 16; j++) {
+            words[j] = getWord(buffer, j * 4);
+        }
+
+        // Cache the first steps of the compression function that only depend on prefix bytes
+        int[] regs = prefixState.clone();
+        cachedSteps = tailLength / 4;
+        for (int i = 0; i < cachedSteps; i++) {
+            int f = (regs[1] & regs[2]) | (~regs[1] & regs[3]);
+            int tmp = regs[3];
+            regs[3] = regs[2];
+            regs[2] = regs[1];
+            regs[1] = regs[1] + Integer.rotateLeft(regs[0] + f + K[i] + words[i], S[i]);
+            regs[0] = tmp;
+        }
+        cachedA = regs[0];
+        cachedB = regs[1];
+        cachedC = regs[2];
+        cachedD = regs[3];
+    }
+
+    private void updateDigitWords(int from) {
+        int end = tailLength + digitCount;
+        for (int j = from / 4, last = (end - 1) / 4; j <= last; j++) {
+            words[j] = getWord(buffer, j * 4);
+        }
+    }
+
+    static int getWord(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff)
+                | (bytes[offset + 1] & 0xff) << 8
+                | (bytes[offset + 2] & 0xff) << 16
+                | (bytes[offset + 3] & 0xff) << 24;
+    }
+
+    /**
+     * Runs the compression function for the block starting at the given word offset from the given step and
+     * registers, and adds the final registers to the state.
+     */
+    private static void compress(int[] state, int[] x, int offset, int start, int a, int b, int c, int d) {
+        for (int i = start; i < 64; i++) {
+            int f, g;
+            if (i < 16) {
+                f = (b & c) | (~b & d);
+                g = i;
+            } else if (i < 32) {
+                f = (d & b) | (~d & c);
+                g = (5 * i + 1) & 15;
+            } else if (i < 48) {
+                f = b ^ c ^ d;
+                g = (3 * i + 5) & 15;
+            } else {
+                f = c ^ (b | ~d);
+                g = (7 * i) & 15;
+            }
+            int tmp = d;
+            d = c;
+            c = b;
+            b = b + Integer.rotateLeft(a + f + K[i] + x[offset + g], S[i]);
+            a = tmp;
+        }
+        state[0] += a;
+        state[1] += b;
+        state[2] += c;
+        state[3] += d;
+    }
+
+    /**
+     * Runs the compression function for the block starting at the given word offset from the given step and
+     * registers, and returns the final value of the first register (without adding the initial state).
+     * Only the first 61 steps are executed: the first register is not affected by the last three steps.
+     * The rounds are unswitched to avoid branching in the hot loop.
+     */
+    private static int compressFirstWord(int[] x, int offset, int start, int a, int b, int c, int d) {
+        int i = start;
+        for (; i < 16; i++) {
+            int f = (b & c) | (~b & d);
+            int tmp = d;
+            d = c;
+            c = b;
+            b = b + Integer.rotateLeft(a + f + K[i] + x[offset + i], S[i]);
+            a = tmp;
+        }
+        for (; i < 32; i++) {
+            int f = (d & b) | (~d & c);
+            int tmp = d;
+            d = c;
+            c = b;
+            b = b + Integer.rotateLeft(a + f + K[i] + x[offset + ((5 * i + 1) & 15)], S[i]);
+            a = tmp;
+        }
+        for (; i < 48; i++) {
+            int f = b ^ c ^ d;
+            int tmp = d;
+            d = c;
+            c = b;
+            b = b + Integer.rotateLeft(a + f + K[i] + x[offset + ((3 * i + 5) & 15)], S[i]);
+            a = tmp;
+        }
+        for (; i < 61; i++) {
+            int f = c ^ (b | ~d);
+            int tmp = d;
+            d = c;
+            c = b;
+            b = b + Integer.rotateLeft(a + f + K[i] + x[offset + ((7 * i) & 15)], S[i]);
+            a = tmp;
+        }
+        return b;
+    }
+
+}
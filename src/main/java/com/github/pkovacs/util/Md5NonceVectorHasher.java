@@ -0,0 +1,240 @@
+package com.github.pkovacs.util;
+
+import java.nio.charset.StandardCharsets;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A multi-lane variant of {@link Md5NonceHasher}: it hashes several consecutive nonces at once, one per lane
+ * of an {@link IntVector}. The number of lanes depends on the preferred vector size of the platform: 4, 8, or 16
+ * for 128-bit, 256-bit, and 512-bit vectors, respectively.
+ * <p>
+ * This class uses the incubator Vector API, so the module {@code jdk.incubator.vector} has to be added to the
+ * module graph (via {@code --add-modules jdk.incubator.vector}) both at compile time and at runtime.
+ * The prefix is also restricted: the message must fit into a single 64-byte block after the complete prefix blocks.
+ * Use {@link Md5NonceHasher#isVectorHasherSupported(String)} to check these conditions before touching this class
+ * (even loading this class fails without the Vector API), and fall back to {@link Md5NonceHasher} otherwise.
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public final class Md5NonceVectorHasher {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private final int lanes = SPECIES.length();
+    private final int prefixWord;
+    private final int tailLength;
+    private final long prefixBlockBytes;
+    private final int cachedSteps;
+    private final int cachedA, cachedB, cachedC, cachedD;
+
+    /** The message block of each lane. */
+    private final byte[][] buffers;
+    private final int[] digitCounts;
+
+    /** The message words of all lanes: word {@code j} of lane {@code l} is stored at index {@code j * lanes + l}. */
+    private final int[] words;
+
+    private long nonce;
+
+    /**
+     * Creates a new hasher for the given prefix (encoded as UTF-8). The lanes are initialized with the consecutive
+     * nonces starting from the given one.
+     *
+     * @throws IllegalArgumentException if the prefix is too long for a single-block layout or the initial nonce
+     *         is negative
+     */
+    public Md5NonceVectorHasher(String prefix, long nonce) {
+        if (!Md5NonceHasher.fitsSingleBlock(prefix)) {
+            throw new IllegalArgumentException("Prefix is too long for a single-block layout: \"" + prefix + "\".");
+        }
+
+        var scalar = new Md5NonceHasher(prefix, nonce);
+        prefixWord = scalar.prefixState()[0];
+        cachedSteps = scalar.cachedSteps();
+        int[] regs = scalar.cachedRegisters();
+        cachedA = regs[0];
+        cachedB = regs[1];
+        cachedC = regs[2];
+        cachedD = regs[3];
+
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        tailLength = bytes.length % 64;
+        prefixBlockBytes = bytes.length - tailLength;
+
+        buffers = new byte[lanes][64];
+        digitCounts = new int[lanes];
+        words = new int[16 * lanes];
+        for (int l = 0; l < lanes; l++) {
+            System.arraycopy(bytes, (int) prefixBlockBytes, buffers[l], 0, tailLength);
+        }
+        setNonce(nonce);
+    }
+
+    /**
+     * Returns the number of lanes, that is, the number of nonces hashed at once.
+     */
+    public int laneCount() {
+        return lanes;
+    }
+
+    /**
+     * Returns the nonce of the first lane. Lane {@code l} hashes nonce {@code nonce() + l}.
+     */
+    public long nonce() {
+        return nonce;
+    }
+
+    /**
+     * Sets the nonce of the first lane. The other lanes are set to the consecutive nonces.
+     *
+     * @throws IllegalArgumentException if the nonce is negative
+     */
+    public void setNonce(long nonce) {
+        if (nonce < 0) {
+            throw new IllegalArgumentException("Negative nonce: " + nonce + ".");
+        }
+        this.nonce = nonce;
+        for (int l = 0; l < lanes; l++) {
+            var digits = Long.toString(nonce + l);
+            for (int i = 0; i < digits.length(); i++) {
+                buffers[l][tailLength + i] = (byte) digits.charAt(i);
+            }
+            digitCounts[l] = digits.length();
+            updateLayout(l);
+        }
+    }
+
+    /**
+     * Advances all lanes by {@link #laneCount()}, that is, to the next batch of consecutive nonces.
+     */
+    public void next() {
+        nonce += lanes;
+        for (int l = 0; l < lanes; l++) {
+            addToNonce(l, lanes);
+        }
+    }
+
+    /**
+     * Returns the index of the first lane for which the first word of the hash (as defined by
+     * {@link Md5NonceHasher#firstWord()}) and the given mask have no common bits, or {@code -1} if there is no
+     * such lane. The mask is typically obtained by {@link Md5NonceHasher#leadingZeroMask(int)}.
+     */
+    public int findLane(int mask) {
+        int lane = firstWords().and(mask).compare(VectorOperators.EQ, 0).firstTrue();
+        return lane < lanes ? lane : -1;
+    }
+
+    /**
+     * Finds the first matching lane for each of the given masks, as {@link #findLane(int)} does, but the hashes are
+     * computed only once. The index of the lane for {@code masks[p]} (or {@code -1}) is stored in {@code lanes[p]}.
+     */
+    public void findLanes(int[] masks, int[] lanes) {
+        var words = firstWords();
+        for (int p = 0; p < masks.length; p++) {
+            int lane = words.and(masks[p]).compare(VectorOperators.EQ, 0).firstTrue();
+            lanes[p] = lane < this.lanes ? lane : -1;
+        }
+    }
+
+    /**
+     * Returns the first word of the hash for each lane (as defined by {@link Md5NonceHasher#firstWord()}).
+     */
+    public int[] firstWordArray() {
+        return firstWords().toArray();
+    }
+
+    private IntVector firstWords() {
+        var a = IntVector.broadcast(SPECIES, cachedA);
+        var b = IntVector.broadcast(SPECIES, cachedB);
+        var c = IntVector.broadcast(SPECIES, cachedC);
+        var d = IntVector.broadcast(SPECIES, cachedD);
+        int i = cachedSteps;
+        for (; i < 16; i++) {
+            var f = b.and(c).or(b.not().and(d));
+            var t = step(a, b, f, i, i);
+            a = d;
+            d = c;
+            c = b;
+            b = t;
+        }
+        for (; i < 32; i++) {
+            var f = d.and(b).or(d.not().and(c));
+            var t = step(a, b, f, i, (5 * i + 1) & 15);
+            a = d;
+            d = c;
+            c = b;
+            b = t;
+        }
+        for (; i < 48; i++) {
+            var f = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.XOR, d);
+            var t = step(a, b, f, i, (3 * i + 5) & 15);
+            a = d;
+            d = c;
+            c = b;
+            b = t;
+        }
+        // The first register is not affected by the last three steps
+        for (; i < 61; i++) {
+            var f = c.lanewise(VectorOperators.XOR, b.or(d.not()));
+            var t = step(a, b, f, i, (7 * i) & 15);
+            a = d;
+            d = c;
+            c = b;
+            b = t;
+        }
+        return b.add(prefixWord);
+    }
+
+    private IntVector step(IntVector a, IntVector b, IntVector f, int i, int g) {
+        var x = IntVector.fromArray(SPECIES, words, g * lanes);
+        return a.add(f).add(x).add(Md5NonceHasher.K[i]).lanewise(VectorOperators.ROL, Md5NonceHasher.S[i]).add(b);
+    }
+
+    /**
+     * Adds a small positive value to the decimal digits of the given lane in place.
+     */
+    private void addToNonce(int lane, int delta) {
+        byte[] buffer = buffers[lane];
+        int i = tailLength + digitCounts[lane] - 1;
+        int carry = delta;
+        while (carry > 0 && i >= tailLength) {
+            int v = buffer[i] - '0' + carry;
+            buffer[i--] = (byte) ('0' + v % 10);
+            carry = v / 10;
+        }
+        if (carry == 0) {
+            for (int j = (i + 1) / 4, last = (tailLength + digitCounts[lane] - 1) / 4; j <= last; j++) {
+                words[j * lanes + lane] = Md5NonceHasher.getWord(buffer, j * 4);
+            }
+        } else {
+            // The counter gets one digit longer (the carry is a single digit as delta is small)
+            if (digitCounts[lane] == Md5NonceHasher.MAX_DIGITS) {
+                throw new ArithmeticException("Nonce overflow.");
+            }
+            System.arraycopy(buffer, tailLength, buffer, tailLength + 1, digitCounts[lane]);
+            buffer[tailLength] = (byte) ('0' + carry);
+            digitCounts[lane]++;
+            updateLayout(lane);
+        }
+    }
+
+    private void updateLayout(int lane) {
+        byte[] buffer = buffers[lane];
+        int length = tailLength + digitCounts[lane];
+        buffer[length] = (byte) 0x80;
+        for (int i = length + 1; i < 56; i++) {
+            buffer[i] = 0;
+        }
+        long bitLength = (prefixBlockBytes + length) * 8;
+        for (int i = 0; i < 8; i++) {
+            buffer[56 + i] = (byte) (bitLength >>> (8 * i));
+        }
+        for (int j = 0; j < 16; j++) {
+            words[j * lanes + lane] = Md5NonceHasher.getWord(buffer, j * 4);
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.github.pkovacs.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled scan pattern (similar to the format string of scanf method in C), which can be used to parse many
+ * input lines efficiently.
+ * <p>
+ * The pattern may contain "%d", "%c", "%s" for a non-negative integer, a single character, and an arbitrary
+ * string, respectively. Otherwise, it is considered as a RegEx, so be aware of escaping special characters like
+ * '(', ')', '[', ']', '.', '*', '?' etc. The pattern must not contain capturing groups.
+ * <p>
+ * A template is immutable and thread-safe. The lines are matched by a {@link Result} object obtained from
+ * {@link #newResult()}, which can be reused for any number of lines (but only by a single thread). Its primitive
+ * accessors parse the values directly from the input line, so matching a line and reading numbers and characters
+ * does not allocate memory. For example:
+ * <pre>
+ * var template = ScanTemplate.compile("%s %d,%d through %d,%d");
+ * var result = template.newResult();
+ * for (var line : lines) {
+ *     result.match(line);
+ *     String cmd = result.getString(0);
+ *     int x1 = result.getInt(1);
+ *     ...
+ * }
+ * </pre>
+ *
+ * @see InputUtils#scan(String, String)
+ */
+public final class ScanTemplate {
+
+    private final String pattern;
+    private final Pattern regex;
+    private final char[] types;
+
+    private ScanTemplate(String pattern, Pattern regex, char[] types) {
+        this.pattern = pattern;
+        this.regex = regex;
+        this.types = types;
+    }
+
+    /**
+     * Compiles the given scan pattern.
+     *
+     * @throws IllegalArgumentException if the pattern is not a valid RegEx or it contains capturing groups
+     */
+    public static ScanTemplate compile(String pattern) {
+        var regex = new StringBuilder(pattern.length() + 16);
+        var types = new StringBuilder();
+        for (int i = 0, n = pattern.length(); i < n; i++) {
+            char ch = pattern.charAt(i);
+            char type = ch == '%' && i + 1 < n ? pattern.charAt(i + 1) : 0;
+            switch (type) {
+                case 'd' -> regex.append("(\\d+)");
+                case 'c' -> regex.append("(.)");
+                case 's' -> regex.append("(.*)");
+                default -> {
+                    regex.append(ch);
+                    continue;
+                }
+            }
+            types.append(type);
+            i++;
+        }
+
+        var compiled = Pattern.compile(regex.toString());
+        if (compiled.matcher("").groupCount() != types.length()) {
+            throw new IllegalArgumentException(String.format(
+                    "RegEx '%s' (created from pattern '%s') has %d groups instead of expected %d.",
+                    regex, pattern, compiled.matcher("").groupCount(), types.length()));
+        }
+        return new ScanTemplate(pattern, compiled, types.toString().toCharArray());
+    }
+
+    /**
+     * Returns the pattern string this template was compiled from.
+     */
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the number of values ("%d", "%c", "%s") in the pattern.
+     */
+    public int valueCount() {
+        return types.length;
+    }
+
+    /**
+     * Returns the type of the value at the given index: {@code 'd'}, {@code 'c'}, or {@code 's'}.
+     */
+    public char valueType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Creates a new, reusable result holder for matching input lines with this template.
+     */
+    public Result newResult() {
+        return new Result();
+    }
+
+    /**
+     * Matches the given input string with this template and returns the result. This is a shorthand for
+     * {@code newResult().match(input)}.
+     *
+     * @throws IllegalArgumentException if the input does not match the template
+     */
+    public Result match(CharSequence input) {
+        return newResult().match(input);
+    }
+
+    /**
+     * A reusable holder of the values parsed from an input line. The values are indexed from zero in the order
+     * of their occurrence in the pattern. The result is only valid until the next line is matched.
+     */
+    public final class Result {
+
+        private final Matcher matcher = regex.matcher("");
+        private CharSequence input;
+
+        private Result() {
+        }
+
+        /**
+         * Matches the given input line. Returns this object for convenience.
+         *
+         * @throws IllegalArgumentException if the input does not match the template
+         */
+        public Result match(CharSequence input) {
+            if (!tryMatch(input)) {
+                throw new IllegalArgumentException(String.format(
+                        "Input string '%s' does not match the RegEx '%s' (created from pattern '%s').",
+                        input, regex, pattern));
+            }
+            return this;
+        }
+
+        /**
+         * Matches the given input line and returns {@code true} if it matches the template. Otherwise, the values
+         * are unavailable until a matching line.
+         */
+        public boolean tryMatch(CharSequence input) {
+            return tryMatch(input, 0, input.length());
+        }
+
+        /**
+         * Matches the given region of the input and returns {@code true} if it matches the template. This way,
+         * the lines of a large input can be matched without creating a string for each line.
+         */
+        public boolean tryMatch(CharSequence input, int start, int end) {
+            this.input = input;
+            if (matcher.reset(input).region(start, end).matches()) {
+                return true;
+            }
+            this.input = null;
+            return false;
+        }
+
+        /**
+         * Returns the template of this result.
+         */
+        public ScanTemplate template() {
+            return ScanTemplate.this;
+        }
+
+        /**
+         * Returns the start index of the value at the given index within the input.
+         */
+        public int start(int index) {
+            return matcher.start(group(index));
+        }
+
+        /**
+         * Returns the end index (exclusive) of the value at the given index within the input.
+         */
+        public int end(int index) {
+            return matcher.end(group(index));
+        }
+
+        /**
+         * Returns the value at the given index parsed as an {@code int}.
+         *
+         * @throws NumberFormatException if the value is not a valid {@code int} value
+         */
+        public int getInt(int index) {
+            int group = group(index);
+            return Integer.parseInt(input, matcher.start(group), matcher.end(group), 10);
+        }
+
+        /**
+         * Returns the value at the given index parsed as a {@code long}.
+         *
+         * @throws NumberFormatException if the value is not a valid {@code long} value
+         */
+        public long getLong(int index) {
+            int group = group(index);
+            return Long.parseLong(input, matcher.start(group), matcher.end(group), 10);
+        }
+
+        /**
+         * Returns the first character of the value at the given index.
+         */
+        public char getChar(int index) {
+            int group = group(index);
+            if (matcher.start(group) == matcher.end(group)) {
+                throw new IllegalArgumentException("Value " + index + " is empty.");
+            }
+            return input.charAt(matcher.start(group));
+        }
+
+        /**
+         * Returns the value at the given index as a subsequence of the input line.
+         */
+        public CharSequence get(int index) {
+            int group = group(index);
+            return input.subSequence(matcher.start(group), matcher.end(group));
+        }
+
+        /**
+         * Returns the value at the given index as a string.
+         */
+        public String getString(int index) {
+            return get(index).toString();
+        }
+
+        private int group(int index) {
+            if (input == null) {
+                throw new IllegalStateException("No input line has been matched.");
+            }
+            if (index < 0 || index >= types.length) {
+                throw new IllegalArgumentException("Invalid value index: " + index + " (pattern '" + pattern
+                        + "' has " + types.length + " values).");
+            }
+            return index + 1; // 0-th group is the entire match
+        }
+
+    }
+
+}
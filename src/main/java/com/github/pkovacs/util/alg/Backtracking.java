@@ -34,7 +34,18 @@ public final class Backtracking {
      * @return the list of all feasible solutions
      */
     public static List<int[]> findAll(int n, int m, BacktrackingPredicate predicate) {
-        return run(n, m, predicate, Integer.MAX_VALUE);
+        return run(n, m, predicate, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Runs backtracking algorithm just like {@link #findAll(int, int, BacktrackingPredicate)}, and collects
+     * statistics about the search process into the given {@link BacktrackingStats} object.
+     *
+     * @param stats the statistics sink or {@code null} to collect no statistics
+     * @return the list of all feasible solutions
+     */
+    public static List<int[]> findAll(int n, int m, BacktrackingPredicate predicate, BacktrackingStats stats) {
+        return run(n, m, predicate, Integer.MAX_VALUE, stats);
     }
 
     /**
@@ -56,7 +67,19 @@ public final class Backtracking {
      * @return a feasible solution or an empty optional if no solution is found
      */
     public static Optional<int[]> findFirst(int n, int m, BacktrackingPredicate predicate) {
-        return run(n, m, predicate, 1).stream().findFirst();
+        return run(n, m, predicate, 1, null).stream().findFirst();
+    }
+
+    /**
+     * Runs backtracking algorithm just like {@link #findFirst(int, int, BacktrackingPredicate)}, and collects
+     * statistics about the search process into the given {@link BacktrackingStats} object.
+     *
+     * @param stats the statistics sink or {@code null} to collect no statistics
+     * @return a feasible solution or an empty optional if no solution is found
+     */
+    public static Optional<int[]> findFirst(int n, int m, BacktrackingPredicate predicate,
+            BacktrackingStats stats) {
+        return run(n, m, predicate, 1, stats).stream().findFirst();
     }
 
     /**
@@ -73,9 +96,33 @@ public final class Backtracking {
         return true;
     }
 
-    private static List<int[]> run(int n, int m, BacktrackingPredicate predicate, int limit) {
-        List<int[]> result = new ArrayList<>();
+    private static List<int[]> run(int n, int m, BacktrackingPredicate predicate, int limit,
+            BacktrackingStats stats) {
+        var event = new SearchEvent();
+        if (stats == null && !event.isEnabled()) {
+            return search(n, m, predicate, limit);
+        }
 
+        // The number of nodes is needed for the event, which is derived from the statistics
+        var counters = stats != null ? stats : new BacktrackingStats();
+        long nodesBefore = counters.predicateCalls() - counters.rejections();
+        event.begin();
+
+        var result = search(n, m, predicate, limit, counters);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = "Backtracking";
+            event.nodes = counters.predicateCalls() - counters.rejections() - nodesBefore;
+            event.solutions = result.size();
+            event.commit();
+        }
+
+        return result;
+    }
+
+    private static List<int[]> search(int n, int m, BacktrackingPredicate predicate, int limit) {
+        List<int[]> result = new ArrayList<>();
         int[] solution = new int[n];
         Arrays.fill(solution, -1);
         for (int k = 0; k >= 0; ) {
@@ -102,10 +149,56 @@ public final class Backtracking {
                 k--;
             }
         }
+        return result;
+    }
 
+    /**
+     * The same as {@link #search(int, int, BacktrackingPredicate, int)}, but it also collects statistics. It is
+     * kept separate, so that the plain search does not pay for the statistics at all.
+     */
+    private static List<int[]> search(int n, int m, BacktrackingPredicate predicate, int limit,
+            BacktrackingStats stats) {
+        List<int[]> result = new ArrayList<>();
+        int[] solution = new int[n];
+        Arrays.fill(solution, -1);
+        for (int k = 0; k >= 0; ) {
+            // Find next accepted value for the k-th position
+            do {
+                solution[k]++;
+            } while (solution[k] < m && !accept(predicate, solution, k, stats));
+
+            if (solution[k] < m) {
+                // A valid value is found
+                if (k < n - 1) {
+                    // Step forward to the next level
+                    k++;
+                } else {
+                    // A solution is found
+                    result.add(solution.clone());
+                    stats.solutionFound();
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            } else {
+                // Step back to the previous level
+                solution[k] = -1;
+                k--;
+                if (k >= 0) {
+                    stats.backtracked();
+                }
+            }
+        }
         return result;
     }
 
+    private static boolean accept(BacktrackingPredicate predicate, int[] candidate, int k,
+            BacktrackingStats stats) {
+        boolean accepted = predicate.accept(candidate, k);
+        stats.predicateCalled(k, accepted);
+        return accepted;
+    }
+
     /**
      * Checks if a partial solution candidate can be accepted during the {@link Backtracking} algorithm.
      * Such a candidate is represented by an int array and the index {@code k} of the current element to be checked.
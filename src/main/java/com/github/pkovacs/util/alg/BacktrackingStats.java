@@ -0,0 +1,99 @@
+package com.github.pkovacs.util.alg;
+
+import java.util.Arrays;
+
+/**
+ * Optional statistics sink for {@link Backtracking}. Pass an instance to
+ * {@link Backtracking#findAll(int, int, Backtracking.BacktrackingPredicate, BacktrackingStats)} or
+ * {@link Backtracking#findFirst(int, int, Backtracking.BacktrackingPredicate, BacktrackingStats)} to collect
+ * counters about the work done by the algorithm.
+ * <p>
+ * If the same instance is used for multiple executions, the counters are accumulated. Instances of this class
+ * are not thread-safe.
+ */
+public final class BacktrackingStats {
+
+    private long predicateCalls;
+    private long[] rejections = new long[0];
+    private long backtracks;
+    private long solutions;
+
+    /**
+     * Returns the number of calls of the predicate.
+     */
+    public long predicateCalls() {
+        return predicateCalls;
+    }
+
+    /**
+     * Returns the total number of candidates rejected by the predicate.
+     */
+    public long rejections() {
+        return Arrays.stream(rejections).sum();
+    }
+
+    /**
+     * Returns the number of candidates rejected by the predicate at the given depth, that is, for index {@code k}
+     * of the partial solution.
+     */
+    public long rejections(int depth) {
+        return depth < rejections.length ? rejections[depth] : 0;
+    }
+
+    /**
+     * Returns the number of rejected candidates for each depth as a new array.
+     */
+    public long[] rejectionsPerDepth() {
+        return rejections.clone();
+    }
+
+    /**
+     * Returns the number of backtracks, that is, the number of steps back to a previous level after all values
+     * were tried for a position.
+     */
+    public long backtracks() {
+        return backtracks;
+    }
+
+    /**
+     * Returns the number of solutions found.
+     */
+    public long solutions() {
+        return solutions;
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        predicateCalls = 0;
+        rejections = new long[0];
+        backtracks = 0;
+        solutions = 0;
+    }
+
+    void predicateCalled(int depth, boolean accepted) {
+        predicateCalls++;
+        if (!accepted) {
+            if (depth >= rejections.length) {
+                rejections = Arrays.copyOf(rejections, depth + 1);
+            }
+            rejections[depth]++;
+        }
+    }
+
+    void backtracked() {
+        backtracks++;
+    }
+
+    void solutionFound() {
+        solutions++;
+    }
+
+    @Override
+    public String toString() {
+        return "BacktrackingStats[predicateCalls=" + predicateCalls + ", rejections=" + Arrays.toString(rejections)
+                + ", backtracks=" + backtracks + ", solutions=" + solutions + "]";
+    }
+
+}
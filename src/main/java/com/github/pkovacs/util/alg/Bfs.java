@@ -74,8 +74,39 @@ public final class Bfs {
      */
     public static <T> Map<T, PathResult<T>> run(Iterable<T> sources, Function<T, Iterable<T>> neighborProvider,
             Predicate<T> targetPredicate) {
-        var results = new HashMap<T, PathResult<T>>();
+        return run(sources, neighborProvider, targetPredicate, null);
+    }
+
+    /**
+     * Runs the algorithm just like {@link #run(Iterable, Function, Predicate)}, and collects statistics about the
+     * search process into the given {@link BfsStats} object.
+     *
+     * @param stats the statistics sink or {@code null}. In the latter case, no statistics are collected, and the
+     *         same loop is executed as by {@link #run(Iterable, Function, Predicate)}, without any overhead.
+     */
+    public static <T> Map<T, PathResult<T>> run(Iterable<T> sources, Function<T, Iterable<T>> neighborProvider,
+            Predicate<T> targetPredicate, BfsStats stats) {
+        var event = new SearchEvent();
+        event.begin();
+
+        var results = stats == null
+                ? search(sources, neighborProvider, targetPredicate)
+                : search(sources, neighborProvider, targetPredicate, stats);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = "BFS";
+            event.nodes = results.size();
+            event.solutions = results.values().stream().filter(PathResult::isTarget).count();
+            event.commit();
+        }
 
+        return results;
+    }
+
+    private static <T> Map<T, PathResult<T>> search(Iterable<T> sources, Function<T, Iterable<T>> neighborProvider,
+            Predicate<T> targetPredicate) {
+        var results = new HashMap<T, PathResult<T>>();
         var queue = new ArrayDeque<T>();
         for (T source : sources) {
             results.put(source, new PathResult<>(source, 0, targetPredicate.test(source), null));
@@ -96,7 +127,41 @@ public final class Bfs {
                 }
             }
         }
+        return results;
+    }
+
+    /**
+     * The same as {@link #search(Iterable, Function, Predicate)}, but it also collects statistics. It is kept
+     * separate, so that the plain search does not pay for the statistics at all.
+     */
+    private static <T> Map<T, PathResult<T>> search(Iterable<T> sources, Function<T, Iterable<T>> neighborProvider,
+            Predicate<T> targetPredicate, BfsStats stats) {
+        var results = new HashMap<T, PathResult<T>>();
+        var queue = new ArrayDeque<T>();
+        for (T source : sources) {
+            results.put(source, new PathResult<>(source, 0, targetPredicate.test(source), null));
+            queue.add(source);
+        }
+        stats.updateQueueSize(queue.size());
 
+        while (!queue.isEmpty()) {
+            T node = queue.poll();
+            var result = results.get(node);
+            if (result.isTarget()) {
+                break;
+            }
+            stats.nodeExpanded();
+            for (T neighbor : neighborProvider.apply(node)) {
+                stats.edgeExamined();
+                if (!results.containsKey(neighbor)) {
+                    results.put(neighbor, new PathResult<>(neighbor, result.dist() + 1,
+                            targetPredicate.test(neighbor), result));
+                    queue.add(neighbor);
+                    stats.updateQueueSize(queue.size());
+                }
+            }
+        }
+        stats.updateVisitedSize(results.size());
         return results;
     }
 
@@ -0,0 +1,79 @@
+package com.github.pkovacs.util.alg;
+
+/**
+ * Optional statistics sink for {@link Bfs}. Pass an instance to
+ * {@link Bfs#run(Iterable, java.util.function.Function, java.util.function.Predicate, BfsStats)} to collect
+ * counters about the work done by the algorithm.
+ * <p>
+ * If the same instance is used for multiple executions, the counters are accumulated, and the peak sizes are
+ * the maximum values over all executions. Instances of this class are not thread-safe.
+ */
+public final class BfsStats {
+
+    private long nodesExpanded;
+    private long edgesExamined;
+    private long peakQueueSize;
+    private long peakVisitedSize;
+
+    /**
+     * Returns the number of nodes whose neighbors were enumerated.
+     */
+    public long nodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Returns the number of edges examined, that is, the total number of neighbors provided for the expanded nodes
+     * (including the ones that were already visited).
+     */
+    public long edgesExamined() {
+        return edgesExamined;
+    }
+
+    /**
+     * Returns the maximum size of the queue of the nodes to be expanded.
+     */
+    public long peakQueueSize() {
+        return peakQueueSize;
+    }
+
+    /**
+     * Returns the maximum size of the map of visited nodes, that is, the number of nodes reached.
+     */
+    public long peakVisitedSize() {
+        return peakVisitedSize;
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        nodesExpanded = 0;
+        edgesExamined = 0;
+        peakQueueSize = 0;
+        peakVisitedSize = 0;
+    }
+
+    void nodeExpanded() {
+        nodesExpanded++;
+    }
+
+    void edgeExamined() {
+        edgesExamined++;
+    }
+
+    void updateQueueSize(int size) {
+        peakQueueSize = Math.max(peakQueueSize, size);
+    }
+
+    void updateVisitedSize(int size) {
+        peakVisitedSize = Math.max(peakVisitedSize, size);
+    }
+
+    @Override
+    public String toString() {
+        return "BfsStats[nodesExpanded=" + nodesExpanded + ", edgesExamined=" + edgesExamined
+                + ", peakQueueSize=" + peakQueueSize + ", peakVisitedSize=" + peakVisitedSize + "]";
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.github.pkovacs.util.alg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Implements parallel search for the smallest integer index that meets an expensive predicate, for example, the
+ * first nonce whose hash starts with a certain number of zeros.
+ * <p>
+ * The index range is split into chunks of consecutive indices, which are processed by worker tasks in a
+ * {@link ForkJoinPool}. The chunks are claimed in increasing order, so when a match is found, all chunks below it
+ * are either completed or being processed, and the workers stop claiming chunks above the best match found so far.
+ * This way, the result is always the <i>smallest</i> matching index, just like in the case of a sequential search,
+ * while the work beyond it is limited to at most one chunk per worker.
+ * <p>
+ * Several predicates can be tracked together (see {@link #findFirst(long, long, int, Supplier)}). This is useful
+ * if the predicates share an expensive computation, e.g., the hash of the index is checked for five and six leading
+ * zeros as well.
+ */
+public final class ParallelSearch {
+
+    /** The default number of indices in a chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 14;
+
+    private ParallelSearch() {
+    }
+
+    /**
+     * Finds the smallest index between {@code start} (inclusive) and {@code end} (exclusive) that is accepted by
+     * the given predicate. The predicate is evaluated concurrently in the {@link ForkJoinPool#commonPool() common
+     * pool}, so it has to be thread-safe.
+     *
+     * @return the smallest accepted index or {@code -1} if there is no such index in the range
+     */
+    public static long findFirst(long start, long end, LongPredicate predicate) {
+        return findFirst(start, end, 1, () -> (chunkStart, chunkEnd, matches) -> {
+            for (long i = chunkStart; i < chunkEnd; i++) {
+                if (predicate.test(i)) {
+                    matches[0] = i;
+                    return;
+                }
+            }
+        })[0];
+    }
+
+    /**
+     * Finds the smallest index between {@code start} (inclusive) and {@code end} (exclusive) for each of the
+     * given number of predicates, using the {@link ForkJoinPool#commonPool() common pool} and the
+     * {@link #DEFAULT_CHUNK_SIZE default chunk size}.
+     *
+     * @param count the number of predicates
+     * @param scannerFactory a factory that provides a {@link ChunkScanner} for each worker task. The scanners
+     *         are not shared between threads, so they can maintain mutable state.
+     * @return the array of the smallest matching indices for each predicate or {@code -1} for the predicates that
+     *         have no matching index in the range
+     */
+    public static long[] findFirst(long start, long end, int count, Supplier<? extends ChunkScanner> scannerFactory) {
+        return findFirst(start, end, count, scannerFactory, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Finds the smallest index between {@code start} (inclusive) and {@code end} (exclusive) for each of the
+     * given number of predicates. This is the most general way to execute the search.
+     *
+     * @param count the number of predicates
+     * @param scannerFactory a factory that provides a {@link ChunkScanner} for each worker task. The scanners
+     *         are not shared between threads, so they can maintain mutable state.
+     * @param pool the pool to execute the worker tasks in. The number of tasks equals to its parallelism.
+     * @param chunkSize the number of indices in a chunk. Larger chunks mean less overhead, but also more work
+     *         done above the smallest match.
+     * @return the array of the smallest matching indices for each predicate or {@code -1} for the predicates that
+     *         have no matching index in the range
+     */
+    public static long[] findFirst(long start, long end, int count, Supplier<? extends ChunkScanner> scannerFactory,
+            ForkJoinPool pool, int chunkSize) {
+        if (count <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid predicate count or chunk size: " + count + ", "
+                    + chunkSize + ".");
+        }
+
+        var search = new Search(start, end, count, chunkSize);
+        if (start < end) {
+            List<ForkJoinTask<?>> workers = new ArrayList<>();
+            for (int i = 0; i < pool.getParallelism(); i++) {
+                workers.add(ForkJoinTask.adapt(() -> search.work(scannerFactory.get())));
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> {
+                ForkJoinTask.invokeAll(workers);
+            }));
+        }
+
+        long[] result = new long[count];
+        for (int p = 0; p < count; p++) {
+            long best = search.best.get(p);
+            result[p] = best == Long.MAX_VALUE ? -1 : best;
+        }
+        return result;
+    }
+
+    private static final class Search {
+
+        final long start;
+        final long end;
+        final int count;
+        final int chunkSize;
+        final AtomicLong nextChunk;
+        final AtomicLongArray best;
+
+        Search(long start, long end, int count, int chunkSize) {
+            this.start = start;
+            this.end = end;
+            this.count = count;
+            this.chunkSize = chunkSize;
+            this.nextChunk = new AtomicLong(start);
+            this.best = new AtomicLongArray(count);
+            for (int p = 0; p < count; p++) {
+                best.set(p, Long.MAX_VALUE);
+            }
+        }
+
+        void work(ChunkScanner scanner) {
+            long[] matches = new long[count];
+            while (true) {
+                long chunkStart = nextChunk.getAndAdd(chunkSize);
+                if (chunkStart < start || chunkStart >= end || chunkStart > bound()) {
+                    // The range is exhausted (the first condition checks overflow), or all predicates have
+                    // matches below this chunk
+                    break;
+                }
+                long chunkEnd = end - chunkStart <= chunkSize ? end : chunkStart + chunkSize;
+
+                Arrays.fill(matches, -1);
+                scanner.scan(chunkStart, chunkEnd, matches);
+                for (int p = 0; p < count; p++) {
+                    if (matches[p] >= 0) {
+                        best.accumulateAndGet(p, matches[p], Math::min);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the largest of the best indices found so far for the predicates.
+         */
+        private long bound() {
+            long max = 0;
+            for (int p = 0; p < count; p++) {
+                max = Math.max(max, best.get(p));
+            }
+            return max;
+        }
+
+    }
+
+    /**
+     * Scans a chunk of consecutive indices for {@link ParallelSearch}.
+     */
+    @FunctionalInterface
+    public interface ChunkScanner {
+
+        /**
+         * Scans the indices from {@code start} (inclusive) to {@code end} (exclusive), and stores the smallest
+         * index that meets the {@code p}-th predicate into {@code matches[p]}. When this method is called, all
+         * elements of {@code matches} are set to {@code -1}, and they should be left unchanged for the predicates
+         * that are not met within the chunk. The scanner may return as soon as a match is found for each predicate.
+         */
+        void scan(long start, long end, long[] matches);
+
+    }
+
+}
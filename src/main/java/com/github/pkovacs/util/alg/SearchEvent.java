@@ -0,0 +1,32 @@
+package com.github.pkovacs.util.alg;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event emitted for each execution of a search algorithm ({@link Bfs} and
+ * {@link Backtracking}). The duration of the event is the duration of the search.
+ */
+@Name(SearchEvent.NAME)
+@Label("Search")
+@Category({ "Puzzle Utils", "Search" })
+@Description("Execution of a search algorithm")
+final class SearchEvent extends Event {
+
+    static final String NAME = "com.github.pkovacs.util.alg.Search";
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Nodes")
+    @Description("The number of nodes visited during the search")
+    long nodes;
+
+    @Label("Solutions")
+    @Description("The number of solutions (target nodes) found")
+    long solutions;
+
+}
@@ -0,0 +1,242 @@
+package com.github.pkovacs.util.data;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size grid of boolean values (bits) with efficient range operations. Each row is stored as a
+ * {@code long[]} array, one bit per cell, so the grid takes 1/8 of the memory of a {@code boolean[][]} array and
+ * 1/32 of an {@code int[][]} array.
+ * <p>
+ * The rectangle operations ({@link #set(int, int, int, int)}, {@link #clear(int, int, int, int)},
+ * {@link #toggle(int, int, int, int)}) process 64 cells at a time using masked word operations (OR, AND-NOT,
+ * and XOR, respectively), and {@link #count()} uses {@link Long#bitCount(long)}.
+ * <p>
+ * The rectangles are specified by inclusive row and column indices. A grid can also be created from a char matrix
+ * (see {@link #fromCharMatrix(char[][], char)}), e.g. one read by
+ * {@link com.github.pkovacs.util.InputUtils#readCharMatrix(java.nio.file.Path)}, or from a {@link CharGrid}.
+ */
+public final class BitGrid {
+
+    private final int rowCount;
+    private final int colCount;
+    private final long[][] rows;
+
+    /**
+     * Creates a new grid with the given number of rows and columns. All cells are {@code false} initially.
+     */
+    public BitGrid(int rowCount, int colCount) {
+        if (rowCount < 0 || colCount < 0) {
+            throw new IllegalArgumentException("Invalid grid size: " + rowCount + "x" + colCount + ".");
+        }
+        this.rowCount = rowCount;
+        this.colCount = colCount;
+        rows = new long[rowCount][(colCount + 63) >>> 6];
+    }
+
+    /**
+     * Creates a new grid from the given char matrix: a cell is {@code true} if and only if the corresponding
+     * character equals to {@code ch}. The number of columns is the length of the longest row of the matrix.
+     */
+    public static BitGrid fromCharMatrix(char[][] matrix, char ch) {
+        int colCount = Arrays.stream(matrix).mapToInt(row -> row.length).max().orElse(0);
+        var grid = new BitGrid(matrix.length, colCount);
+        for (int i = 0; i < matrix.length; i++) {
+            long[] row = grid.rows[i];
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (matrix[i][j] == ch) {
+                    row[j >>> 6] |= 1L << j;
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Creates a new grid from the given char grid: a cell is {@code true} if and only if the corresponding
+     * character equals to {@code ch}.
+     */
+    public static BitGrid fromCharGrid(CharGrid charGrid, char ch) {
+        var grid = new BitGrid(charGrid.rowCount(), charGrid.colCount());
+        for (int i = 0; i < grid.rowCount; i++) {
+            long[] row = grid.rows[i];
+            for (int j = 0; j < grid.colCount; j++) {
+                if (charGrid.get(i, j) == ch) {
+                    row[j >>> 6] |= 1L << j;
+                }
+            }
+        }
+        return grid;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int colCount() {
+        return colCount;
+    }
+
+    /**
+     * Returns the value of the given cell.
+     */
+    public boolean get(int row, int col) {
+        checkCell(row, col);
+        return (rows[row][col >>> 6] & (1L << col)) != 0;
+    }
+
+    /**
+     * Returns the value of the given cell.
+     */
+    public boolean get(Tile tile) {
+        return get(tile.row(), tile.col());
+    }
+
+    /**
+     * Sets the value of the given cell.
+     */
+    public void set(int row, int col, boolean value) {
+        checkCell(row, col);
+        if (value) {
+            rows[row][col >>> 6] |= 1L << col;
+        } else {
+            rows[row][col >>> 6] &= ~(1L << col);
+        }
+    }
+
+    /**
+     * Sets the value of the given cell.
+     */
+    public void set(Tile tile, boolean value) {
+        set(tile.row(), tile.col(), value);
+    }
+
+    /**
+     * Sets all cells of the given rectangle to {@code true}.
+     */
+    public void set(int row1, int col1, int row2, int col2) {
+        apply(row1, col1, row2, col2, Op.SET);
+    }
+
+    /**
+     * Sets all cells of the given rectangle to {@code false}.
+     */
+    public void clear(int row1, int col1, int row2, int col2) {
+        apply(row1, col1, row2, col2, Op.CLEAR);
+    }
+
+    /**
+     * Inverts all cells of the given rectangle.
+     */
+    public void toggle(int row1, int col1, int row2, int col2) {
+        apply(row1, col1, row2, col2, Op.TOGGLE);
+    }
+
+    /**
+     * Returns the number of {@code true} cells.
+     */
+    public long count() {
+        long count = 0;
+        for (long[] row : rows) {
+            for (long word : row) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of {@code true} cells in the given row.
+     */
+    public int count(int row) {
+        checkRow(row);
+        int count = 0;
+        for (long word : rows[row]) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private void apply(int row1, int col1, int row2, int col2, Op op) {
+        if (row1 > row2 || col1 > col2) {
+            throw new IllegalArgumentException("Invalid range: (" + row1 + ", " + col1 + ") - (" + row2 + ", "
+                    + col2 + ").");
+        }
+        checkCell(row1, col1);
+        checkCell(row2, col2);
+
+        int w1 = col1 >>> 6;
+        int w2 = col2 >>> 6;
+        // Java masks the shift distance, so these shifts only depend on the index within the word
+        long firstMask = -1L << col1;
+        long lastMask = -1L >>> (63 - (col2 & 63));
+        for (int i = row1; i <= row2; i++) {
+            long[] row = rows[i];
+            if (w1 == w2) {
+                row[w1] = op.apply(row[w1], firstMask & lastMask);
+            } else {
+                row[w1] = op.apply(row[w1], firstMask);
+                for (int w = w1 + 1; w < w2; w++) {
+                    row[w] = op.apply(row[w], -1L);
+                }
+                row[w2] = op.apply(row[w2], lastMask);
+            }
+        }
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IllegalArgumentException("Row " + row + " is out of the grid of size " + rowCount + "x"
+                    + colCount + ".");
+        }
+    }
+
+    private void checkCell(int row, int col) {
+        if (row < 0 || row >= rowCount || col < 0 || col >= colCount) {
+            throw new IllegalArgumentException("Cell (" + row + ", " + col + ") is out of the grid of size "
+                    + rowCount + "x" + colCount + ".");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof BitGrid other && rowCount == other.rowCount && colCount == other.colCount
+                && Arrays.deepEquals(rows, other.rows);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(rows) * 31 + colCount;
+    }
+
+    /**
+     * Returns a multi-line string representation of this grid using {@code '#'} and {@code '.'} for the
+     * {@code true} and {@code false} cells, respectively.
+     */
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (int i = 0; i < rowCount; i++) {
+            for (int j = 0; j < colCount; j++) {
+                sb.append((rows[i][j >>> 6] & (1L << j)) != 0 ? '#' : '.');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private enum Op {
+        SET, CLEAR, TOGGLE;
+
+        long apply(long word, long mask) {
+            return switch (this) {
+                case SET -> word | mask;
+                case CLEAR -> word & ~mask;
+                case TOGGLE -> word ^ mask;
+            };
+        }
+    }
+
+}
@@ -0,0 +1,351 @@
+package com.github.pkovacs.util.data;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed-size, mutable grid of ASCII characters, e.g. a map read from a puzzle input file.
+ * <p>
+ * The cells are stored in a single {@code byte[]} array in row-major order with a fixed row stride. When a file is
+ * read by {@link #read(Path)} and all of its lines have the same length, the contents of the file is used as is:
+ * the line separators simply become the gaps between the rows. Therefore, loading a grid does not involve any
+ * decoding, per-row allocation, or copying, and the grid takes one byte per cell (instead of two bytes per cell
+ * plus a {@code String} and a {@code char[]} per row, as in the case of
+ * {@link com.github.pkovacs.util.InputUtils#readCharMatrix(Path)}).
+ * <p>
+ * The rows and the columns of the grid can be accessed as {@link CharSequence} views (see {@link #row(int)} and
+ * {@link #col(int)}), which reflect later changes of the grid, too. Only characters up to U+00FF can be stored,
+ * and the bytes of non-ASCII files are interpreted as ISO-8859-1 characters.
+ */
+public final class CharGrid {
+
+    private final int rowCount;
+    private final int colCount;
+    private final int stride;
+    private final byte[] data;
+
+    private CharGrid(int rowCount, int colCount, int stride, byte[] data) {
+        this.rowCount = rowCount;
+        this.colCount = colCount;
+        this.stride = stride;
+        this.data = data;
+    }
+
+    /**
+     * Creates a new grid with the given number of rows and columns, filled with the given character.
+     */
+    public CharGrid(int rowCount, int colCount, char fill) {
+        if (rowCount < 0 || colCount < 0) {
+            throw new IllegalArgumentException("Invalid grid size: " + rowCount + "x" + colCount + ".");
+        }
+        this.rowCount = rowCount;
+        this.colCount = colCount;
+        this.stride = colCount;
+        this.data = new byte[Math.multiplyExact(rowCount, colCount)];
+        Arrays.fill(data, toByte(fill));
+    }
+
+    /**
+     * Reads the lines of the given file as a grid. Both LF and CRLF line separators are supported. If the lines
+     * are not of the same length, the shorter ones are padded with space characters.
+     */
+    public static CharGrid read(Path path) {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read file: " + path + ".", e);
+        }
+        var grid = wrap(data);
+        return grid != null ? grid : fromLines(new String(data, StandardCharsets.ISO_8859_1).lines().toList());
+    }
+
+    /**
+     * Creates a new grid from the given lines. If the lines are not of the same length, the shorter ones are
+     * padded with space characters.
+     */
+    public static CharGrid fromLines(List<? extends CharSequence> lines) {
+        int colCount = lines.stream().mapToInt(CharSequence::length).max().orElse(0);
+        var grid = new CharGrid(lines.size(), colCount, ' ');
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i);
+            for (int j = 0, n = line.length(); j < n; j++) {
+                grid.data[i * colCount + j] = toByte(line.charAt(j));
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Creates a new grid from the given char matrix. If the rows are not of the same length, the shorter ones are
+     * padded with space characters.
+     */
+    public static CharGrid fromCharMatrix(char[][] matrix) {
+        return fromLines(Arrays.stream(matrix).map(String::new).toList());
+    }
+
+    /**
+     * Wraps the contents of a text file as a grid if all lines have the same length. Returns {@code null}
+     * otherwise.
+     */
+    private static CharGrid wrap(byte[] data) {
+        int n = data.length;
+        int firstLf = 0;
+        while (firstLf < n && data[firstLf] != '\n') {
+            firstLf++;
+        }
+        if (firstLf == n) {
+            // Single line (or empty file) without line separator
+            return n == 0 ? new CharGrid(0, 0, 0, data) : isLine(data, 0, n) ? new CharGrid(1, n, n, data) : null;
+        }
+
+        int sepLength = firstLf > 0 && data[firstLf - 1] == '\r' ? 2 : 1;
+        int colCount = firstLf + 1 - sepLength;
+        int stride = colCount + sepLength;
+        int rowCount;
+        if (n % stride == 0) {
+            rowCount = n / stride;
+        } else if ((n + sepLength) % stride == 0) {
+            rowCount = (n + sepLength) / stride; // no line separator at the end of the file
+        } else {
+            return null;
+        }
+
+        for (int i = 0; i < rowCount; i++) {
+            int start = i * stride;
+            int end = start + colCount;
+            if (!isLine(data, start, end)
+                    || (end < n && (data[end + sepLength - 1] != '\n' || (sepLength == 2 && data[end] != '\r')))) {
+                return null;
+            }
+        }
+        return new CharGrid(rowCount, colCount, stride, data);
+    }
+
+    private static boolean isLine(byte[] data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (data[i] == '\n' || data[i] == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int colCount() {
+        return colCount;
+    }
+
+    /**
+     * Returns {@code true} if the given tile is within the bounds of this grid.
+     */
+    public boolean contains(Tile tile) {
+        return tile.isValid(rowCount, colCount);
+    }
+
+    /**
+     * Returns the character of the given cell.
+     */
+    public char get(int row, int col) {
+        return (char) (data[index(row, col)] & 0xFF);
+    }
+
+    /**
+     * Returns the character of the given cell.
+     */
+    public char get(Tile tile) {
+        return get(tile.row(), tile.col());
+    }
+
+    /**
+     * Sets the character of the given cell.
+     */
+    public void set(int row, int col, char ch) {
+        data[index(row, col)] = toByte(ch);
+    }
+
+    /**
+     * Sets the character of the given cell.
+     */
+    public void set(Tile tile, char ch) {
+        set(tile.row(), tile.col(), ch);
+    }
+
+    /**
+     * Returns a view of the given row.
+     */
+    public CharSequence row(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IllegalArgumentException("Row " + row + " is out of the grid of size " + rowCount + "x"
+                    + colCount + ".");
+        }
+        return new View(row * stride, 1, colCount);
+    }
+
+    /**
+     * Returns a view of the given column.
+     */
+    public CharSequence col(int col) {
+        if (col < 0 || col >= colCount) {
+            throw new IllegalArgumentException("Column " + col + " is out of the grid of size " + rowCount + "x"
+                    + colCount + ".");
+        }
+        return new View(col, stride, rowCount);
+    }
+
+    /**
+     * Returns the number of cells containing the given character.
+     */
+    public int count(char ch) {
+        int count = 0;
+        for (int i = 0; i < rowCount; i++) {
+            for (int k = i * stride, end = k + colCount; k < end; k++) {
+                if ((data[k] & 0xFF) == ch) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the first tile (in row-major order) containing the given character, or {@code null} if there is
+     * no such tile.
+     */
+    public Tile find(char ch) {
+        for (int i = 0; i < rowCount; i++) {
+            for (int j = 0; j < colCount; j++) {
+                if ((data[i * stride + j] & 0xFF) == ch) {
+                    return new Tile(i, j);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the contents of this grid as a new char matrix.
+     */
+    public char[][] toCharMatrix() {
+        var matrix = new char[rowCount][colCount];
+        for (int i = 0; i < rowCount; i++) {
+            for (int j = 0; j < colCount; j++) {
+                matrix[i][j] = (char) (data[i * stride + j] & 0xFF);
+            }
+        }
+        return matrix;
+    }
+
+    private int index(int row, int col) {
+        if (row < 0 || row >= rowCount || col < 0 || col >= colCount) {
+            throw new IllegalArgumentException("Cell (" + row + ", " + col + ") is out of the grid of size "
+                    + rowCount + "x" + colCount + ".");
+        }
+        return row * stride + col;
+    }
+
+    private static byte toByte(char ch) {
+        if (ch > 0xFF) {
+            throw new IllegalArgumentException("Character '" + ch + "' cannot be stored in a CharGrid.");
+        }
+        return (byte) ch;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CharGrid other) || rowCount != other.rowCount || colCount != other.colCount) {
+            return false;
+        }
+        for (int i = 0; i < rowCount; i++) {
+            if (!Arrays.equals(data, i * stride, i * stride + colCount,
+                    other.data, i * other.stride, i * other.stride + colCount)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = colCount;
+        for (int i = 0; i < rowCount; i++) {
+            for (int k = i * stride, end = k + colCount; k < end; k++) {
+                hash = hash * 31 + data[k];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a multi-line string representation of this grid (each row is followed by a line separator).
+     */
+    @Override
+    public String toString() {
+        var sb = new StringBuilder(rowCount * (colCount + 1));
+        for (int i = 0; i < rowCount; i++) {
+            sb.append(row(i)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A view of the cells of a row or a column.
+     */
+    private final class View implements CharSequence {
+
+        private final int offset;
+        private final int step;
+        private final int length;
+
+        View(int offset, int step, int length) {
+            this.offset = offset;
+            this.step = step;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (data[offset + index * step] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+            }
+            return new View(offset + start * step, step, end - start);
+        }
+
+        @Override
+        public String toString() {
+            if (step == 1) {
+                return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+            }
+            var chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = charAt(i);
+            }
+            return new String(chars);
+        }
+
+    }
+
+}
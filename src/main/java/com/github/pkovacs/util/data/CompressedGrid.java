@@ -0,0 +1,175 @@
+package com.github.pkovacs.util.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A coordinate-compressed grid of {@code long} values for bulk operations on axis-aligned rectangles.
+ * <p>
+ * The grid is created for a known set of rectangles. Their x and y coordinates are compressed: the boundaries of the
+ * rectangles cut the plane into blocks, and each block is represented by a single cell, as all points of a block
+ * are affected by exactly the same rectangles. Therefore, the cost of an operation depends on the number of distinct
+ * coordinates (at most {@code 2n} in each dimension for {@code n} rectangles) instead of the area of the rectangle.
+ * The coordinates can be arbitrary {@code long} values, so this class is suitable for huge grids, as well.
+ * <p>
+ * The rectangles are specified by inclusive coordinates {@code {x1, y1, x2, y2}}, where {@code x1 <= x2} and
+ * {@code y1 <= y2}. The values of all points are zero initially. The operations can only be applied to the
+ * rectangles the grid was created for (or any other rectangle whose boundaries are among their boundaries).
+ */
+public final class CompressedGrid {
+
+    /** The sorted distinct x boundaries: block {@code i} covers {@code [xs[i], xs[i + 1])}. */
+    private final long[] xs;
+    private final long[] ys;
+    private final int width;
+    /** The values of the blocks in row-major order; its size is checked, so {@code i * width + j} cannot overflow. */
+    private final long[] values;
+
+    /**
+     * Creates a grid for the given rectangles, each of which is given as an array {@code {x1, y1, x2, y2}} of
+     * inclusive coordinates.
+     *
+     * @throws IllegalArgumentException if a rectangle is invalid or the number of compressed blocks exceeds the
+     *         maximum array size
+     */
+    public CompressedGrid(Collection<long[]> rectangles) {
+        int cutCount = checkedProduct(rectangles.size(), 2, "boundaries");
+        var xCuts = new long[cutCount];
+        var yCuts = new long[cutCount];
+        int k = 0;
+        for (long[] r : rectangles) {
+            if (r.length != 4 || r[0] > r[2] || r[1] > r[3]) {
+                throw new IllegalArgumentException("Invalid rectangle: " + Arrays.toString(r) + ".");
+            }
+            xCuts[k] = r[0];
+            yCuts[k] = r[1];
+            xCuts[k + 1] = Math.addExact(r[2], 1);
+            yCuts[k + 1] = Math.addExact(r[3], 1);
+            k += 2;
+        }
+        xs = Arrays.stream(xCuts).sorted().distinct().toArray();
+        ys = Arrays.stream(yCuts).sorted().distinct().toArray();
+        width = Math.max(ys.length - 1, 0);
+        values = new long[checkedProduct(Math.max(xs.length - 1, 0), width, "cells")];
+    }
+
+    private static int checkedProduct(int a, int b, String what) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many " + what + " for a compressed grid: " + a + "x" + b + ".");
+        }
+    }
+
+    /**
+     * Returns the number of cells (compressed blocks) of this grid.
+     */
+    public int cellCount() {
+        return values.length;
+    }
+
+    /**
+     * Returns the value of the given point.
+     */
+    public long get(long x, long y) {
+        int i = blockIndex(xs, x);
+        int j = blockIndex(ys, y);
+        return i < 0 || j < 0 ? 0 : values[i * width + j];
+    }
+
+    /**
+     * Sets the value of each point of the given rectangle to {@code value}.
+     */
+    public void set(long x1, long y1, long x2, long y2, long value) {
+        int i1 = boundaryIndex(xs, x1);
+        int i2 = boundaryIndex(xs, x2 + 1);
+        int j1 = boundaryIndex(ys, y1);
+        int j2 = boundaryIndex(ys, y2 + 1);
+        for (int i = i1; i < i2; i++) {
+            Arrays.fill(values, i * width + j1, i * width + j2, value);
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the value of each point of the given rectangle.
+     */
+    public void add(long x1, long y1, long x2, long y2, long delta) {
+        int i1 = boundaryIndex(xs, x1);
+        int i2 = boundaryIndex(xs, x2 + 1);
+        int j1 = boundaryIndex(ys, y1);
+        int j2 = boundaryIndex(ys, y2 + 1);
+        for (int i = i1; i < i2; i++) {
+            for (int k = i * width + j1, end = i * width + j2; k < end; k++) {
+                values[k] += delta;
+            }
+        }
+    }
+
+    /**
+     * Applies the given operator to the value of each point of the given rectangle, e.g., {@code v -> 1 - v} to
+     * toggle a 0/1 value or {@code v -> Math.max(v - 1, 0)} for a decrement clamped at zero.
+     */
+    public void update(long x1, long y1, long x2, long y2, LongUnaryOperator operator) {
+        int i1 = boundaryIndex(xs, x1);
+        int i2 = boundaryIndex(xs, x2 + 1);
+        int j1 = boundaryIndex(ys, y1);
+        int j2 = boundaryIndex(ys, y2 + 1);
+        for (int i = i1; i < i2; i++) {
+            for (int k = i * width + j1, end = i * width + j2; k < end; k++) {
+                values[k] = operator.applyAsLong(values[k]);
+            }
+        }
+    }
+
+    /**
+     * Returns the sum of the values of all points.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i + 1 < xs.length; i++) {
+            long rowSum = 0;
+            for (int j = 0; j < width; j++) {
+                rowSum += values[i * width + j] * (ys[j + 1] - ys[j]);
+            }
+            sum += rowSum * (xs[i + 1] - xs[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of points with a non-zero value.
+     */
+    public long countNonZero() {
+        long count = 0;
+        for (int i = 0; i + 1 < xs.length; i++) {
+            long rowCount = 0;
+            for (int j = 0; j < width; j++) {
+                if (values[i * width + j] != 0) {
+                    rowCount += ys[j + 1] - ys[j];
+                }
+            }
+            count += rowCount * (xs[i + 1] - xs[i]);
+        }
+        return count;
+    }
+
+    private static int boundaryIndex(long[] cuts, long coord) {
+        int index = Arrays.binarySearch(cuts, coord);
+        if (index < 0) {
+            throw new IllegalArgumentException("Coordinate " + coord + " is not a boundary of the rectangles"
+                    + " the grid was created for.");
+        }
+        return index;
+    }
+
+    private static int blockIndex(long[] cuts, long coord) {
+        int index = Arrays.binarySearch(cuts, coord);
+        if (index < 0) {
+            // The block that contains the coordinate starts at the preceding boundary
+            index = -index - 2;
+        }
+        return index < cuts.length - 1 ? index : -1;
+    }
+
+}
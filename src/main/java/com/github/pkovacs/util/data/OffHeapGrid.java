@@ -0,0 +1,368 @@
+package com.github.pkovacs.util.data;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiFunction;
+
+/**
+ * Common base class of the off-heap grids ({@link OffHeapIntGrid} and {@link OffHeapLongGrid}).
+ * <p>
+ * The values are stored in row-major order in direct byte buffers (segments) of at most
+ * {@link #MAX_SEGMENT_SIZE} bytes, each of which contains complete rows. The segments are either allocated by
+ * {@link ByteBuffer#allocateDirect(int)} or mapped from a file. They are released deterministically when the grid is
+ * {@link #close() closed}, instead of waiting for the garbage collector.
+ * <p>
+ * The file format used by {@link #save(Path)} and the memory-mapped grids is a 16-byte header (magic number, value
+ * size, row count, column count) followed by the values in little-endian byte order.
+ */
+abstract class OffHeapGrid implements AutoCloseable {
+
+    /** The maximum size of a segment in bytes. */
+    static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x44495247; // "GRID" in little-endian byte order
+
+    /** {@code sun.misc.Unsafe.invokeCleaner(ByteBuffer)} bound to the instance, as the class is not public API. */
+    private static final MethodHandle invokeCleaner = findInvokeCleaner();
+
+    final int rowCount;
+    final int colCount;
+    final int valueSize;
+    final int rowsPerSegment;
+    final ByteBuffer[] segments;
+
+    private final FileChannel channel;
+    private boolean closed;
+
+    /**
+     * Creates a grid backed by direct buffers.
+     */
+    OffHeapGrid(int rowCount, int colCount, int valueSize) {
+        this(rowCount, colCount, valueSize, null);
+    }
+
+    /**
+     * Creates a grid backed by the given file channel (mapped after the header), or by direct buffers if the
+     * channel is {@code null}.
+     */
+    OffHeapGrid(int rowCount, int colCount, int valueSize, FileChannel channel) {
+        checkSize(rowCount, colCount, valueSize);
+        this.rowCount = rowCount;
+        this.colCount = colCount;
+        this.valueSize = valueSize;
+        this.channel = channel;
+
+        long rowSize = (long) colCount * valueSize;
+        rowsPerSegment = (int) Math.min(rowCount, MAX_SEGMENT_SIZE / rowSize);
+        segments = new ByteBuffer[(rowCount + rowsPerSegment - 1) / rowsPerSegment];
+        try {
+            for (int s = 0; s < segments.length; s++) {
+                int rows = Math.min(rowsPerSegment, rowCount - s * rowsPerSegment);
+                int size = (int) (rows * rowSize);
+                segments[s] = channel == null
+                        ? ByteBuffer.allocateDirect(size)
+                        : channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + s * rowsPerSegment * rowSize,
+                                size);
+                segments[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException e) {
+            release();
+            throw new IllegalArgumentException(e);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            release();
+            throw e;
+        }
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int colCount() {
+        return colCount;
+    }
+
+    /**
+     * Writes the contents of this grid into the given file, which can be loaded later (e.g. to resume a long
+     * computation from a checkpoint).
+     */
+    public void save(Path file) {
+        checkOpen();
+        try (var out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, header(valueSize, rowCount, colCount));
+            for (var segment : segments) {
+                writeFully(out, segment.duplicate().clear());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Writes the changes of a memory-mapped grid to the storage device. Does nothing for other grids.
+     */
+    public void flush() {
+        checkOpen();
+        if (channel != null) {
+            for (var segment : segments) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    /**
+     * Releases the memory (or unmaps the file) of this grid. The grid cannot be used after this method is called.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            release();
+        }
+    }
+
+    /**
+     * Returns the segment containing the given row. Also checks that the grid is open, because accessing a
+     * released buffer could crash the JVM.
+     */
+    final ByteBuffer segment(int row) {
+        checkOpen();
+        return segments[row / rowsPerSegment];
+    }
+
+    /**
+     * Returns the byte offset of the given cell within its segment.
+     */
+    final int offset(int row, int col) {
+        if (row < 0 || row >= rowCount || col < 0 || col >= colCount) {
+            throw new IllegalArgumentException("Cell (" + row + ", " + col + ") is out of the grid of size "
+                    + rowCount + "x" + colCount + ".");
+        }
+        return ((row % rowsPerSegment) * colCount + col) * valueSize;
+    }
+
+    /**
+     * Returns a little-endian view of the bytes of the given row.
+     */
+    final ByteBuffer rowBytes(int row) {
+        return segment(row).slice(offset(row, 0), colCount * valueSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns the value at the given byte offset of the given segment, widened to {@code long}.
+     */
+    abstract long getValue(ByteBuffer segment, int offset);
+
+    /**
+     * Stores the given value, narrowed to the value type of the grid, at the given byte offset of the given segment.
+     */
+    abstract void putValue(ByteBuffer segment, int offset, long value);
+
+    /**
+     * Sets the value of each cell of the given rectangle to {@code value}.
+     */
+    final void fillRange(int row1, int col1, int row2, int col2, long value) {
+        checkRange(row1, col1, row2, col2);
+        for (int i = row1; i <= row2; i++) {
+            var segment = segment(i);
+            for (int k = offset(i, col1), end = offset(i, col2); k <= end; k += valueSize) {
+                putValue(segment, k, value);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the value of each cell of the given rectangle.
+     */
+    final void addRange(int row1, int col1, int row2, int col2, long delta) {
+        checkRange(row1, col1, row2, col2);
+        for (int i = row1; i <= row2; i++) {
+            var segment = segment(i);
+            for (int k = offset(i, col1), end = offset(i, col2); k <= end; k += valueSize) {
+                putValue(segment, k, getValue(segment, k) + delta);
+            }
+        }
+    }
+
+    /**
+     * Returns the sum of the values of the given row.
+     */
+    public long sum(int row) {
+        var segment = segment(row);
+        long sum = 0;
+        for (int k = offset(row, 0), end = offset(row, colCount - 1); k <= end; k += valueSize) {
+            sum += getValue(segment, k);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all values.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < rowCount; i++) {
+            sum += sum(i);
+        }
+        return sum;
+    }
+
+    private void checkRange(int row1, int col1, int row2, int col2) {
+        if (row1 > row2 || col1 > col2) {
+            throw new IllegalArgumentException("Invalid range: (" + row1 + ", " + col1 + ") - (" + row2 + ", "
+                    + col2 + ").");
+        }
+        offset(row1, col1);
+        offset(row2, col2);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The grid is closed.");
+        }
+    }
+
+    private void release() {
+        for (int s = 0; s < segments.length; s++) {
+            if (segments[s] != null) {
+                try {
+                    invokeCleaner.invokeExact(segments[s]);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+                segments[s] = null;
+            }
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+
+    /**
+     * Opens the given grid file for memory mapping. If the file exists, its header is checked against the given
+     * parameters, otherwise the file is created (with all values set to zero).
+     */
+    static FileChannel openMapped(Path file, int valueSize, int rowCount, int colCount) {
+        checkSize(rowCount, colCount, valueSize);
+        try {
+            var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                if (channel.size() == 0) {
+                    writeFully(channel, header(valueSize, rowCount, colCount));
+                } else {
+                    var header = readHeader(channel, file);
+                    if (header[0] != valueSize || header[1] != rowCount || header[2] != colCount) {
+                        throw new IllegalArgumentException("Grid file " + file + " does not match the requested"
+                                + " grid of size " + rowCount + "x" + colCount + ".");
+                    }
+                }
+                return channel;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Loads a grid saved by {@link #save(Path)} into direct buffers. The grid is created by the given factory from
+     * the row count and column count stored in the file.
+     */
+    static <G extends OffHeapGrid> G load(Path file, int valueSize, BiFunction<Integer, Integer, G> factory) {
+        try (var in = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = readHeader(in, file);
+            if (header[0] != valueSize) {
+                throw new IllegalArgumentException("Grid file " + file + " contains values of " + header[0]
+                        + " bytes instead of " + valueSize + " bytes.");
+            }
+            var grid = factory.apply(header[1], header[2]);
+            try {
+                grid.readValues(in, file);
+            } catch (IOException | RuntimeException e) {
+                grid.close();
+                throw e;
+            }
+            return grid;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    final void readValues(FileChannel in, Path file) throws IOException {
+        long position = HEADER_SIZE;
+        for (var segment : segments) {
+            var buffer = segment.duplicate().clear();
+            while (buffer.hasRemaining()) {
+                int read = in.read(buffer, position);
+                if (read < 0) {
+                    throw new IllegalArgumentException("Grid file " + file + " is truncated.");
+                }
+                position += read;
+            }
+        }
+    }
+
+    private static int[] readHeader(FileChannel in, Path file) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (in.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Invalid grid file: " + file + ".");
+        }
+        return new int[] { header.getInt(), header.getInt(), header.getInt() };
+    }
+
+    private static void checkSize(int rowCount, int colCount, int valueSize) {
+        if (rowCount <= 0 || colCount <= 0 || (long) colCount * valueSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Invalid grid size: " + rowCount + "x" + colCount + ".");
+        }
+    }
+
+    private static ByteBuffer header(int valueSize, int rowCount, int colCount) {
+        return ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putInt(valueSize).putInt(rowCount).putInt(colCount)
+                .flip();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static MethodHandle findInvokeCleaner() {
+        try {
+            var unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.github.pkovacs.util.data;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A fixed-size grid of {@code long} values stored off-heap, for grids that would put too much pressure on the
+ * garbage collector (or would not fit in the heap at all) as {@code long[][]} arrays. All values are zero initially.
+ * <p>
+ * A grid is either backed by direct buffers (see {@link #OffHeapLongGrid(int, int)}) or by a memory-mapped file
+ * (see {@link #map(Path, int, int)}). The grid must be {@link #close() closed} to release its memory, preferably by
+ * a try-with-resources statement. The contents can be saved by {@link #save(Path)} and reloaded by
+ * {@link #load(Path)} to checkpoint long computations.
+ * <p>
+ * The rectangles are specified by inclusive row and column indices.
+ */
+public final class OffHeapLongGrid extends OffHeapGrid {
+
+    private static final int VALUE_SIZE = Long.BYTES;
+
+    /**
+     * Creates a new grid backed by direct buffers with the given number of rows and columns.
+     */
+    public OffHeapLongGrid(int rowCount, int colCount) {
+        super(rowCount, colCount, VALUE_SIZE);
+    }
+
+    private OffHeapLongGrid(int rowCount, int colCount, FileChannel channel) {
+        super(rowCount, colCount, VALUE_SIZE, channel);
+    }
+
+    /**
+     * Creates a grid backed by the given memory-mapped file. If the file exists, it must have been created by this
+     * method or by {@link #save(Path)} for a grid of the same size, and its contents are used. Otherwise, a new file
+     * is created with all values set to zero. The changes are written to the file by the operating system, but
+     * {@link #flush()} can be used to force writing them.
+     */
+    public static OffHeapLongGrid map(Path file, int rowCount, int colCount) {
+        return new OffHeapLongGrid(rowCount, colCount, openMapped(file, VALUE_SIZE, rowCount, colCount));
+    }
+
+    /**
+     * Loads a grid saved by {@link #save(Path)} into direct buffers.
+     */
+    public static OffHeapLongGrid load(Path file) {
+        return load(file, VALUE_SIZE, OffHeapLongGrid::new);
+    }
+
+    /**
+     * Returns the value of the given cell.
+     */
+    public long get(int row, int col) {
+        return segment(row).getLong(offset(row, col));
+    }
+
+    /**
+     * Returns the value of the given cell.
+     */
+    public long get(Tile tile) {
+        return get(tile.row(), tile.col());
+    }
+
+    /**
+     * Sets the value of the given cell.
+     */
+    public void set(int row, int col, long value) {
+        segment(row).putLong(offset(row, col), value);
+    }
+
+    /**
+     * Sets the value of the given cell.
+     */
+    public void set(Tile tile, long value) {
+        set(tile.row(), tile.col(), value);
+    }
+
+    /**
+     * Copies the values of the given row into the given array, which must have at least {@link #colCount()}
+     * elements. Returns the array.
+     */
+    public long[] readRow(int row, long[] values) {
+        rowBytes(row).asLongBuffer().get(values, 0, colCount);
+        return values;
+    }
+
+    /**
+     * Sets the values of the given row to the first {@link #colCount()} elements of the given array.
+     */
+    public void writeRow(int row, long[] values) {
+        rowBytes(row).asLongBuffer().put(values, 0, colCount);
+    }
+
+    /**
+     * Sets the value of each cell of the given rectangle to {@code value}.
+     */
+    public void fill(int row1, int col1, int row2, int col2, long value) {
+        fillRange(row1, col1, row2, col2, value);
+    }
+
+    /**
+     * Adds {@code delta} to the value of each cell of the given rectangle.
+     */
+    public void add(int row1, int col1, int row2, int col2, long delta) {
+        addRange(row1, col1, row2, col2, delta);
+    }
+
+    @Override
+    long getValue(ByteBuffer segment, int offset) {
+        return segment.getLong(offset);
+    }
+
+    @Override
+    void putValue(ByteBuffer segment, int offset, long value) {
+        segment.putLong(offset, value);
+    }
+
+}
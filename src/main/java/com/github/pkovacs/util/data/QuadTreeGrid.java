@@ -0,0 +1,403 @@
+package com.github.pkovacs.util.data;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size grid of {@code long} values that supports rectangle updates and rectangle sum queries efficiently.
+ * It is a quadtree (a two-dimensional segment tree) with lazy propagation, backed by primitive arrays.
+ * <p>
+ * The supported updates are assignment, addition, toggle ({@code v -> 1 - v}, meaningful for 0/1 values), and
+ * addition with a floor clamp ({@code v -> max(v + delta, floor)}). All rectangles are specified by inclusive row
+ * and column indices, and the values of all cells are zero initially.
+ * <p>
+ * Each node of the tree stores the sum, the minimum, and the maximum of its cells and a pending affine tag
+ * {@code v -> s * v + a} (where {@code s} is -1, 0, or 1), so an assignment, addition, or toggle of a node that is
+ * completely covered by the rectangle takes constant time. A clamped addition is applied in constant time to the
+ * nodes whose minimum and maximum show that either none or all of their cells are clamped. Otherwise, the clamped
+ * addition descends further (similarly to "segment tree beats"). The leaves are blocks of at most
+ * {@value #LEAF_SIZE}x{@value #LEAF_SIZE} cells, which are processed cell by cell.
+ * <p>
+ * Note that two-dimensional lazy range structures cannot guarantee polylogarithmic time for all rectangles: the
+ * boundary of a rectangle intersects {@code O(n)} nodes of the quadtree of an {@code n x n} grid. Still, the cost
+ * of an operation is proportional to the perimeter of the rectangle instead of its area.
+ * <p>
+ * Instances of this class are not thread-safe (even the queries may push pending tags down the tree).
+ */
+public final class QuadTreeGrid {
+
+    /** The maximum number of rows and columns of a leaf block. */
+    public static final int LEAF_SIZE = 8;
+
+    private final int rowCount;
+    private final int colCount;
+
+    /** The values of the cells (row-major order). The pending tags of the leaves are not applied to them. */
+    private final long[] cells;
+
+    private final long[] sum;
+    private final long[] min;
+    private final long[] max;
+    private final byte[] tagScale;
+    private final long[] tagShift;
+    /** The index of the first child of each node (the children are stored consecutively), or -1 for a leaf. */
+    private final int[] firstChild;
+
+    // The rectangle (half-open) and the parameters of the current operation
+    private int qr1, qr2, qc1, qc2;
+    private int opScale;
+    private long opShift;
+    private boolean opClamp;
+    private long opFloor;
+
+    /**
+     * Creates a new grid with the given number of rows and columns.
+     *
+     * @throws IllegalArgumentException if the size is not positive or the number of cells exceeds the maximum
+     *         array size
+     */
+    public QuadTreeGrid(int rowCount, int colCount) {
+        if (rowCount <= 0 || colCount <= 0) {
+            throw new IllegalArgumentException("Invalid grid size: " + rowCount + "x" + colCount + ".");
+        }
+        this.rowCount = rowCount;
+        this.colCount = colCount;
+        try {
+            cells = new long[Math.multiplyExact(rowCount, colCount)];
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too large grid size: " + rowCount + "x" + colCount + ".");
+        }
+
+        int nodeCount = countNodes(0, rowCount, 0, colCount);
+        sum = new long[nodeCount];
+        min = new long[nodeCount];
+        max = new long[nodeCount];
+        tagScale = new byte[nodeCount];
+        tagShift = new long[nodeCount];
+        firstChild = new int[nodeCount];
+        Arrays.fill(tagScale, (byte) 1);
+        build(0, 1, 0, rowCount, 0, colCount);
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int colCount() {
+        return colCount;
+    }
+
+    /**
+     * Returns the value of the given cell.
+     */
+    public long get(int row, int col) {
+        return sum(row, col, row, col);
+    }
+
+    /**
+     * Sets the value of each cell of the given rectangle to {@code value}.
+     */
+    public void assign(int row1, int col1, int row2, int col2, long value) {
+        update(row1, col1, row2, col2, 0, value, false, 0);
+    }
+
+    /**
+     * Adds {@code delta} to the value of each cell of the given rectangle.
+     */
+    public void add(int row1, int col1, int row2, int col2, long delta) {
+        update(row1, col1, row2, col2, 1, delta, false, 0);
+    }
+
+    /**
+     * Replaces the value {@code v} of each cell of the given rectangle with {@code 1 - v}. This toggles the cells
+     * if all values are 0 or 1.
+     */
+    public void toggle(int row1, int col1, int row2, int col2) {
+        update(row1, col1, row2, col2, -1, 1, false, 0);
+    }
+
+    /**
+     * Replaces the value {@code v} of each cell of the given rectangle with {@code max(v + delta, floor)}.
+     * For example, {@code addClamped(..., -1, 0)} decrements the values, but not below zero.
+     */
+    public void addClamped(int row1, int col1, int row2, int col2, long delta, long floor) {
+        update(row1, col1, row2, col2, 1, delta, true, floor);
+    }
+
+    /**
+     * Returns the sum of the values in the given rectangle.
+     */
+    public long sum(int row1, int col1, int row2, int col2) {
+        setRange(row1, col1, row2, col2);
+        return sum(0, 0, rowCount, 0, colCount);
+    }
+
+    /**
+     * Returns the sum of all values.
+     */
+    public long sum() {
+        return sum[0];
+    }
+
+    /**
+     * Returns the minimum of all values.
+     */
+    public long min() {
+        return min[0];
+    }
+
+    /**
+     * Returns the maximum of all values.
+     */
+    public long max() {
+        return max[0];
+    }
+
+    private void update(int row1, int col1, int row2, int col2, int scale, long shift, boolean clamp, long floor) {
+        setRange(row1, col1, row2, col2);
+        opScale = scale;
+        opShift = shift;
+        opClamp = clamp;
+        opFloor = floor;
+        update(0, 0, rowCount, 0, colCount);
+    }
+
+    private void setRange(int row1, int col1, int row2, int col2) {
+        if (row1 < 0 || col1 < 0 || row2 >= rowCount || col2 >= colCount || row1 > row2 || col1 > col2) {
+            throw new IllegalArgumentException("Invalid range: (" + row1 + ", " + col1 + ") - (" + row2 + ", "
+                    + col2 + ") for grid of size " + rowCount + "x" + colCount + ".");
+        }
+        qr1 = row1;
+        qr2 = row2 + 1;
+        qc1 = col1;
+        qc2 = col2 + 1;
+    }
+
+    private void update(int node, int r1, int r2, int c1, int c2) {
+        if (qr2 <= r1 || r2 <= qr1 || qc2 <= c1 || c2 <= qc1) {
+            return;
+        }
+        long area = (long) (r2 - r1) * (c2 - c1);
+        if (qr1 <= r1 && r2 <= qr2 && qc1 <= c1 && c2 <= qc2) {
+            if (!opClamp) {
+                applyTag(node, area, opScale, opShift);
+                return;
+            } else if (min[node] + opShift >= opFloor) {
+                // None of the cells are clamped
+                applyTag(node, area, 1, opShift);
+                return;
+            } else if (max[node] + opShift <= opFloor) {
+                // All cells are clamped
+                applyTag(node, area, 0, opFloor);
+                return;
+            }
+        }
+
+        if (firstChild[node] < 0) {
+            updateLeaf(node, r1, r2, c1, c2);
+            return;
+        }
+
+        pushDown(node, r1, r2, c1, c2);
+        int rm = rowMid(r1, r2);
+        int cm = colMid(c1, c2);
+        int child = firstChild[node];
+        update(child++, r1, rm, c1, cm);
+        if (cm < c2) {
+            update(child++, r1, rm, cm, c2);
+        }
+        if (rm < r2) {
+            update(child++, rm, r2, c1, cm);
+            if (cm < c2) {
+                update(child, rm, r2, cm, c2);
+            }
+        }
+        pullUp(node, rm < r2, cm < c2);
+    }
+
+    private void updateLeaf(int node, int r1, int r2, int c1, int c2) {
+        int scale = tagScale[node];
+        long shift = tagShift[node];
+        tagScale[node] = 1;
+        tagShift[node] = 0;
+
+        long s = 0;
+        long mn = Long.MAX_VALUE;
+        long mx = Long.MIN_VALUE;
+        for (int i = r1; i < r2; i++) {
+            boolean rowCovered = qr1 <= i && i < qr2;
+            for (int j = c1, k = i * colCount + c1; j < c2; j++, k++) {
+                long v = scale * cells[k] + shift;
+                if (rowCovered && qc1 <= j && j < qc2) {
+                    v = opScale * v + opShift;
+                    if (opClamp && v < opFloor) {
+                        v = opFloor;
+                    }
+                }
+                cells[k] = v;
+                s += v;
+                mn = Math.min(mn, v);
+                mx = Math.max(mx, v);
+            }
+        }
+        sum[node] = s;
+        min[node] = mn;
+        max[node] = mx;
+    }
+
+    private long sum(int node, int r1, int r2, int c1, int c2) {
+        if (qr2 <= r1 || r2 <= qr1 || qc2 <= c1 || c2 <= qc1) {
+            return 0;
+        }
+        if (qr1 <= r1 && r2 <= qr2 && qc1 <= c1 && c2 <= qc2) {
+            return sum[node];
+        }
+
+        if (firstChild[node] < 0) {
+            long s = 0;
+            for (int i = Math.max(r1, qr1), iEnd = Math.min(r2, qr2); i < iEnd; i++) {
+                for (int j = Math.max(c1, qc1), jEnd = Math.min(c2, qc2); j < jEnd; j++) {
+                    s += cells[i * colCount + j];
+                }
+            }
+            long count = (long) (Math.min(r2, qr2) - Math.max(r1, qr1)) * (Math.min(c2, qc2) - Math.max(c1, qc1));
+            return tagScale[node] * s + tagShift[node] * count;
+        }
+
+        pushDown(node, r1, r2, c1, c2);
+        int rm = rowMid(r1, r2);
+        int cm = colMid(c1, c2);
+        int child = firstChild[node];
+        long s = sum(child++, r1, rm, c1, cm);
+        if (cm < c2) {
+            s += sum(child++, r1, rm, cm, c2);
+        }
+        if (rm < r2) {
+            s += sum(child++, rm, r2, c1, cm);
+            if (cm < c2) {
+                s += sum(child, rm, r2, cm, c2);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Applies the affine function {@code v -> scale * v + shift} to all cells of the given node.
+     */
+    private void applyTag(int node, long area, int scale, long shift) {
+        sum[node] = scale * sum[node] + shift * area;
+        if (scale == 1) {
+            min[node] += shift;
+            max[node] += shift;
+        } else if (scale == -1) {
+            long oldMin = min[node];
+            min[node] = shift - max[node];
+            max[node] = shift - oldMin;
+        } else {
+            min[node] = shift;
+            max[node] = shift;
+        }
+        // Compose with the pending tag: the new function is applied after it
+        tagScale[node] = (byte) (scale * tagScale[node]);
+        tagShift[node] = scale * tagShift[node] + shift;
+    }
+
+    private void pushDown(int node, int r1, int r2, int c1, int c2) {
+        int scale = tagScale[node];
+        long shift = tagShift[node];
+        if (scale == 1 && shift == 0) {
+            return;
+        }
+        int rm = rowMid(r1, r2);
+        int cm = colMid(c1, c2);
+        int child = firstChild[node];
+        applyTag(child++, (long) (rm - r1) * (cm - c1), scale, shift);
+        if (cm < c2) {
+            applyTag(child++, (long) (rm - r1) * (c2 - cm), scale, shift);
+        }
+        if (rm < r2) {
+            applyTag(child++, (long) (r2 - rm) * (cm - c1), scale, shift);
+            if (cm < c2) {
+                applyTag(child, (long) (r2 - rm) * (c2 - cm), scale, shift);
+            }
+        }
+        tagScale[node] = 1;
+        tagShift[node] = 0;
+    }
+
+    private void pullUp(int node, boolean rowSplit, boolean colSplit) {
+        int first = firstChild[node];
+        int last = first + (rowSplit ? 2 : 1) * (colSplit ? 2 : 1);
+        long s = 0;
+        long mn = Long.MAX_VALUE;
+        long mx = Long.MIN_VALUE;
+        for (int child = first; child < last; child++) {
+            s += sum[child];
+            mn = Math.min(mn, min[child]);
+            mx = Math.max(mx, max[child]);
+        }
+        sum[node] = s;
+        min[node] = mn;
+        max[node] = mx;
+    }
+
+    /**
+     * Returns the first row of the second half of the given rows, or {@code r2} if they are not split.
+     */
+    private static int rowMid(int r1, int r2) {
+        return r2 - r1 > LEAF_SIZE ? (r1 + r2) >>> 1 : r2;
+    }
+
+    private static int colMid(int c1, int c2) {
+        return c2 - c1 > LEAF_SIZE ? (c1 + c2) >>> 1 : c2;
+    }
+
+    private static boolean isLeaf(int r1, int r2, int c1, int c2) {
+        return r2 - r1 <= LEAF_SIZE && c2 - c1 <= LEAF_SIZE;
+    }
+
+    private static int countNodes(int r1, int r2, int c1, int c2) {
+        if (isLeaf(r1, r2, c1, c2)) {
+            return 1;
+        }
+        int rm = rowMid(r1, r2);
+        int cm = colMid(c1, c2);
+        int count = 1 + countNodes(r1, rm, c1, cm);
+        if (cm < c2) {
+            count += countNodes(r1, rm, cm, c2);
+        }
+        if (rm < r2) {
+            count += countNodes(rm, r2, c1, cm);
+            if (cm < c2) {
+                count += countNodes(rm, r2, cm, c2);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Builds the subtree of the given node, and returns the next free node index.
+     */
+    private int build(int node, int next, int r1, int r2, int c1, int c2) {
+        if (isLeaf(r1, r2, c1, c2)) {
+            firstChild[node] = -1;
+            return next;
+        }
+        int rm = rowMid(r1, r2);
+        int cm = colMid(c1, c2);
+        int child = next;
+        firstChild[node] = child;
+        next += (rm < r2 ? 2 : 1) * (cm < c2 ? 2 : 1);
+        next = build(child++, next, r1, rm, c1, cm);
+        if (cm < c2) {
+            next = build(child++, next, r1, rm, cm, c2);
+        }
+        if (rm < r2) {
+            next = build(child++, next, rm, r2, c1, cm);
+            if (cm < c2) {
+                next = build(child, next, rm, r2, cm, c2);
+            }
+        }
+        return next;
+    }
+
+}